@@ -1,8 +1,5 @@
 package com.example.rupizzeriaapp;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 /**
  * Represents a BBQ Chicken pizza, a specific type of pizza in the pizzeria menu.
  * This pizza comes with predefined toppings and has a specific price based on its size.
@@ -15,31 +12,16 @@ public class BBQChicken extends Pizza {
      */
     public BBQChicken() {
         super();
-        setToppings(new ArrayList<>(Arrays.asList(
-                Topping.BBQ_CHICKEN, Topping.GREEN_PEPPER,
-                Topping.PROVOLONE, Topping.CHEDDAR
-        )));
+        setToppingMask(PizzaKind.BBQ_CHICKEN.getPresetToppingMask());
     }
 
     /**
-     * Calculates the price of the BBQ Chicken pizza based on its size.
+     * Identifies this pizza as a BBQ Chicken pizza, which determines its price in the {@link PriceTable}.
      *
-     * @return the price of the pizza:
-     *         - $14.99 for SMALL
-     *         - $16.99 for MEDIUM
-     *         - $19.99 for LARGE
-     *         - $0.00 for an unspecified size
+     * @return {@link PizzaKind#BBQ_CHICKEN}
      */
     @Override
-    public double price() {
-        double basePrice;
-        switch (getSize()) {
-            case SMALL: basePrice = 14.99; break;
-            case MEDIUM: basePrice = 16.99; break;
-            case LARGE: basePrice = 19.99; break;
-            default: basePrice = 0;
-        }
-        return basePrice;
+    public PizzaKind getKind() {
+        return PizzaKind.BBQ_CHICKEN;
     }
 }
-
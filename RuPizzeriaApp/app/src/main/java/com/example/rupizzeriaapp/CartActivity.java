@@ -2,6 +2,8 @@ package com.example.rupizzeriaapp;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -12,7 +14,6 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.text.DecimalFormat;
 import java.util.stream.Collectors;
 
 /**
@@ -23,17 +24,6 @@ import java.util.stream.Collectors;
  */
 public class CartActivity extends AppCompatActivity {
 
-    /**
-     * Tax rate constant used for calculating sales tax.
-     */
-    private static final double TAX_RATE = 0.06625;
-
-    /**
-     * DecimalFormat instance for formatting monetary values to two decimal places.
-     */
-
-    private DecimalFormat df = new DecimalFormat("0.00");
-
     /**
      * Singleton instance of the OrderManager for managing the current order.
      */
@@ -55,6 +45,8 @@ public class CartActivity extends AppCompatActivity {
     private Button removePizzaButton;
     private Button clearOrderButton;
 
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     /**
      * Initializes the activity. Sets up the UI components, event listeners, and order summary.
      *
@@ -124,8 +116,8 @@ public class CartActivity extends AppCompatActivity {
     }
 
     /**
-     * Places the current order. Displays an error if there are no pizzas in the order.
-     * Updates the order summary upon successful placement.
+     * Places the current order in the background. Displays an error if there are no pizzas in the order.
+     * The cart moves on to a new order at once; the result is shown when placement completes.
      */
     private void placeOrder() {
         if (orderManager.getTotalPizzasInOrder() == 0) {
@@ -133,12 +125,34 @@ public class CartActivity extends AppCompatActivity {
             return;
         }
 
-        orderManager.placeOrder();
-        showSuccess("Order Placed", "Your order has been placed successfully!");
+        Order submitted = orderManager.placeOrderAsync(mainHandler::post, this::onPlacementComplete);
+        if (submitted == null) {
+            showAlert("Error", "The store is busy, please try placing the order again.");
+            return;
+        }
 
         updateOrderSummary();
     }
 
+    /**
+     * Reports the result of a background placement, unless the screen has been closed since.
+     *
+     * @param order  The order that was submitted.
+     * @param placed True if the order was placed.
+     */
+    private void onPlacementComplete(Order order, boolean placed) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (placed) {
+            showSuccess("Order Placed", "Order #" + order.getOrderNumber() + " has been placed successfully!");
+        } else {
+            updateOrderSummary();
+            showAlert("Error", "Order #" + order.getOrderNumber() + " could not be placed. Some toppings may be out of stock."
+                    + " The pizzas are back in your cart.");
+        }
+    }
+
     /**
      * Removes the currently selected pizza from the order. Displays an error if no pizza is selected.
      */
@@ -166,40 +180,45 @@ public class CartActivity extends AppCompatActivity {
     private void updateOrderSummary() {
         orderAdapter.clear();
 
-        orderNumberDisplay.setText(String.valueOf(orderManager.getCurrentOrderNumber()));
+        Order order = orderManager.getCurrentOrder();
+        // Order number 0 means nothing has been added yet, so the cart has not been opened
+        orderNumberDisplay.setText(order.getOrderNumber() == 0 ? "" : String.valueOf(order.getOrderNumber()));
 
-        for (Pizza pizza : orderManager.getPizzas()) {
-            String pizzaDetails = formatPizzaDetails(pizza);
-            orderAdapter.add(pizzaDetails);
+        for (int line = 0, lines = order.getLineCount(); line < lines; line++) {
+            String pizzaDetails = formatPizzaDetails(order.getLinePizza(line), order.getLinePriceCents(line));
+            for (int i = order.getLineQuantity(line); i > 0; i--) {
+                orderAdapter.add(pizzaDetails);
+            }
         }
 
-        double subtotal = orderManager.getSubtotal();
-        double salesTax = orderManager.getTax();
-        double total = orderManager.getTotal();
+        long subtotal = order.getSubtotalCents();
+        long salesTax = order.getTaxCents();
+        long total = order.getTotalCents();
 
-        subtotalDisplay.setText("$" + df.format(subtotal));
-        salesTaxDisplay.setText("$" + df.format(salesTax));
-        orderTotalDisplay.setText("$" + df.format(total));
+        subtotalDisplay.setText("$" + Money.format(subtotal));
+        salesTaxDisplay.setText("$" + Money.format(salesTax));
+        orderTotalDisplay.setText("$" + Money.format(total));
     }
 
     /**
      * Formats the details of a pizza for display in the ListView.
      *
-     * @param pizza The pizza to format.
+     * @param pizza      The pizza to format.
+     * @param priceCents The price the order charges for the pizza.
      * @return A string representation of the pizza's details.
      */
 
-    private String formatPizzaDetails(Pizza pizza) {
+    private String formatPizzaDetails(Pizza pizza, long priceCents) {
         return String.format("%s Pizza - %s, %s Crust\n" +
                         "Toppings: %s\n" +
-                        "Price: $%.2f",
+                        "Price: $%s",
                 pizza.getClass().getSimpleName(),
                 pizza.getSize(),
                 pizza.getCrust(),
                 pizza.getToppings().stream()
                         .map(Object::toString)
                         .collect(Collectors.joining(", ")),
-                pizza.price());
+                Money.format(priceCents));
     }
 
     /**
@@ -4,61 +4,85 @@ package com.example.rupizzeriaapp;
  * @author Sahil Patel, Shreyas Santosh
  */
 public class ChicagoPizza implements PizzaFactory{
+    private static final Pizza[] DELUXE = PizzaTemplates.bySize(PizzaKind.DELUXE, Crust.ChicagoDeluxe);
+    private static final Pizza[] MEATZZA = PizzaTemplates.bySize(PizzaKind.MEATZZA, Crust.ChicagoMeatzza);
+    private static final Pizza[] BBQ_CHICKEN = PizzaTemplates.bySize(PizzaKind.BBQ_CHICKEN, Crust.ChicagoBBQChicken);
+
     /**
      * Creates a Chicago-style Deluxe pizza.
      *
      * @return a {@link Deluxe} pizza with:
      *         - Chicago Deluxe crust
-     *         - Toppings: Sausage, Pepperoni, Green Pepper, Onion, Mushroom
+     *         - Preset toppings: Sausage, Pepperoni, Green Pepper, Onion, Mushroom
      */
     @Override
     public Pizza createDeluxe() {
         Pizza pizza = new Deluxe();
         pizza.setCrust(Crust.ChicagoDeluxe);
-        pizza.addTopping(Topping.SAUSAGE);
-        pizza.addTopping(Topping.PEPPERONI);
-        pizza.addTopping(Topping.GREEN_PEPPER);
-        pizza.addTopping(Topping.ONION);
-        pizza.addTopping(Topping.MUSHROOM);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared Chicago-style Deluxe pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Deluxe} pizza shared by every caller
+     */
+    @Override
+    public Pizza createDeluxe(Size size) {
+        return DELUXE[size.ordinal()];
+    }
+
     /**
      * Creates a Chicago-style Meatzza pizza.
      *
      * @return a {@link Meatzza} pizza with:
      *         - Chicago Meatzza crust
-     *         - Toppings: Sausage, Pepperoni, Beef, Ham
+     *         - Preset toppings: Sausage, Pepperoni, Beef, Ham
      */
     @Override
     public Pizza createMeatzza() {
         Pizza pizza = new Meatzza();
         pizza.setCrust(Crust.ChicagoMeatzza);
-        pizza.addTopping(Topping.SAUSAGE);
-        pizza.addTopping(Topping.PEPPERONI);
-        pizza.addTopping(Topping.BEEF);
-        pizza.addTopping(Topping.HAM);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared Chicago-style Meatzza pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Meatzza} pizza shared by every caller
+     */
+    @Override
+    public Pizza createMeatzza(Size size) {
+        return MEATZZA[size.ordinal()];
+    }
+
     /**
      * Creates a Chicago-style BBQ Chicken pizza.
      *
      * @return a {@link BBQChicken} pizza with:
      *         - Chicago BBQ Chicken crust
-     *         - Toppings: BBQ Chicken, Green Pepper, Provolone, Cheddar
+     *         - Preset toppings: BBQ Chicken, Green Pepper, Provolone, Cheddar
      */
     @Override
     public Pizza createBBQChicken() {
         Pizza pizza = new BBQChicken();
         pizza.setCrust(Crust.ChicagoBBQChicken);
-        pizza.addTopping(Topping.BBQ_CHICKEN);
-        pizza.addTopping(Topping.GREEN_PEPPER);
-        pizza.addTopping(Topping.PROVOLONE);
-        pizza.addTopping(Topping.CHEDDAR);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared Chicago-style BBQ Chicken pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link BBQChicken} pizza shared by every caller
+     */
+    @Override
+    public Pizza createBBQChicken(Size size) {
+        return BBQ_CHICKEN[size.ordinal()];
+    }
+
     /**
      * Creates a Chicago-style Build Your Own pizza.
      *
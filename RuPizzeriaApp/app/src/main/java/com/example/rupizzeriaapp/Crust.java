@@ -6,24 +6,36 @@ package com.example.rupizzeriaapp;
 public enum Crust {
 
 
-    ChicagoDeluxe ("Deep Dish"),
-    NYDeluxe ("Brooklyn"),
-    ChicagoBBQChicken("Pan"),
-    NYBBQChicken("Thin"),
-    ChicagoMeatzza ("Stuffed"),
-    NYMeatzza ("Hand Tossed"),
-    ChicagoBYO ("Pan"),
-    NYBYO ("Hand Tossed");
+    ChicagoDeluxe ("Deep Dish", 25),
+    NYDeluxe ("Brooklyn", 10),
+    ChicagoBBQChicken("Pan", 15),
+    NYBBQChicken("Thin", 7),
+    ChicagoMeatzza ("Stuffed", 30),
+    NYMeatzza ("Hand Tossed", 10),
+    ChicagoBYO ("Pan", 15),
+    NYBYO ("Hand Tossed", 10);
 
 
     private String crust;
+    private final long bakeMillis;
 
     /**
      * crust constructor
      * @param crust crust
+     * @param bakeMinutes minutes the crust spends in the oven
      */
-    Crust(String crust) {
+    Crust(String crust, int bakeMinutes) {
         this.crust = crust;
+        this.bakeMillis = bakeMinutes * 60_000L;
+    }
+
+    /**
+     * Retrieves how long a pizza with this crust bakes, e.g. 25 minutes for deep dish.
+     *
+     * @return the bake time in milliseconds
+     */
+    public long getBakeMillis() {
+        return bakeMillis;
     }
 
     /**
@@ -35,39 +47,53 @@ public enum Crust {
         return crust.crust;
     }
 
+    private static final int KIND_COUNT = PizzaKind.values().length;
+    private static final Crust[] BY_KIND_AND_STYLE = new Crust[KIND_COUNT * PizzaStyle.values().length];
+
+    static {
+        put(PizzaKind.DELUXE, PizzaStyle.CHICAGO, ChicagoDeluxe);
+        put(PizzaKind.BBQ_CHICKEN, PizzaStyle.CHICAGO, ChicagoBBQChicken);
+        put(PizzaKind.MEATZZA, PizzaStyle.CHICAGO, ChicagoMeatzza);
+        put(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.CHICAGO, ChicagoBYO);
+        put(PizzaKind.DELUXE, PizzaStyle.NEW_YORK, NYDeluxe);
+        put(PizzaKind.BBQ_CHICKEN, PizzaStyle.NEW_YORK, NYBBQChicken);
+        put(PizzaKind.MEATZZA, PizzaStyle.NEW_YORK, NYMeatzza);
+        put(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, NYBYO);
+    }
+
+    private static void put(PizzaKind kind, PizzaStyle style, Crust crust) {
+        BY_KIND_AND_STYLE[index(kind, style)] = crust;
+    }
+
+    private static int index(PizzaKind kind, PizzaStyle style) {
+        return style.ordinal() * KIND_COUNT + kind.ordinal();
+    }
+
+    /**
+     * Looks up the crust of a kind of pizza in a style, from a table built once.
+     *
+     * @param kind  the kind of pizza
+     * @param style the style of pizza
+     * @return the crust
+     */
+    public static Crust of(PizzaKind kind, PizzaStyle style) {
+        return BY_KIND_AND_STYLE[index(kind, style)];
+    }
+
     /**
-     * getCrust method to get the crust type
+     * getCrust method to get the crust type.
+     * Adapter over {@link #of(PizzaKind, PizzaStyle)} for callers that only have display names.
      * @param pizza Pizza as a string
      * @param type type as a string
-     * @return crust
+     * @return crust, or null if either name is unrecognized
      */
     public static Crust getCrust(String pizza, String type){
-        if (type.equalsIgnoreCase("New York")){
-            if (pizza.equalsIgnoreCase("Deluxe")){
-                return NYDeluxe;
-            } else if (pizza.equalsIgnoreCase("Meatzza")){
-                return NYMeatzza;
-            } else if (pizza.equalsIgnoreCase("BBQ Chicken")){
-                return NYBBQChicken;
-            } else if (pizza.equalsIgnoreCase("Build Your Own")){
-                return NYBYO;
-            } else {
-                return null;
-            }
-        } else if (type.equalsIgnoreCase("Chicago")){
-            if (pizza.equalsIgnoreCase("Deluxe")){
-                return ChicagoDeluxe;
-            } else if (pizza.equalsIgnoreCase("Meatzza")){
-                return ChicagoMeatzza;
-            } else if (pizza.equalsIgnoreCase("BBQ Chicken")){
-                return ChicagoBBQChicken;
-            } else if (pizza.equalsIgnoreCase("Build Your Own")){
-                return ChicagoBYO;
-            } else {
-                return null;
-            }
+        PizzaKind kind = PizzaKind.fromDisplayName(pizza);
+        PizzaStyle style = PizzaStyle.fromDisplayName(type);
+        if (kind == null || style == null) {
+            return null;
         }
-        return null;
+        return of(kind, style);
     }
 
 }
@@ -1,6 +1,4 @@
 package com.example.rupizzeriaapp;
-import java.util.ArrayList;
-import java.util.Arrays;
 
 /**
  * Represents a Deluxe pizza, a predefined type of pizza in the pizzeria menu.
@@ -14,30 +12,16 @@ public class Deluxe extends Pizza {
      */
     public Deluxe() {
         super();
-        setToppings(new ArrayList<>(Arrays.asList(
-                Topping.SAUSAGE, Topping.PEPPERONI, Topping.GREEN_PEPPER,
-                Topping.ONION, Topping.MUSHROOM
-        )));
+        setToppingMask(PizzaKind.DELUXE.getPresetToppingMask());
     }
 
     /**
-     * Calculates the price of the Deluxe pizza based on its size.
+     * Identifies this pizza as a Deluxe pizza, which determines its price in the {@link PriceTable}.
      *
-     * @return the price of the pizza:
-     *         - $16.99 for SMALL
-     *         - $18.99 for MEDIUM
-     *         - $20.99 for LARGE
-     *         - $0.00 for an unspecified size
+     * @return {@link PizzaKind#DELUXE}
      */
     @Override
-    public double price() {
-        double basePrice;
-        switch (getSize()) {
-            case SMALL: basePrice = 16.99; break;
-            case MEDIUM: basePrice = 18.99; break;
-            case LARGE: basePrice = 20.99; break;
-            default: basePrice = 0;
-        }
-        return basePrice;
+    public PizzaKind getKind() {
+        return PizzaKind.DELUXE;
     }
 }
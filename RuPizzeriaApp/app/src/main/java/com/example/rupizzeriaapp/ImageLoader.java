@@ -0,0 +1,157 @@
+package com.example.rupizzeriaapp;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads drawable resources into image views, decoding them off the main thread.
+ * Each image is sampled down to the size of the view it is shown in, and decoded bitmaps are kept
+ * in a process-wide LRU cache bounded by bytes, so rebinding a row or switching pizza types shows
+ * a cached bitmap instead of decoding the resource again.
+ * Must be called on the main thread.
+ */
+public final class ImageLoader {
+    private static final int DECODE_THREADS = 2;
+    private static final int MAX_CACHE_BYTES = 16 * 1024 * 1024;
+
+    private static ImageLoader instance;
+
+    private final Resources resources;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService decoder = Executors.newFixedThreadPool(DECODE_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "image-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LruCache<String, Bitmap> cache;
+    // Views waiting for each image being decoded; only touched on the main thread
+    private final Map<String, List<ImageView>> pending = new HashMap<>();
+
+    private ImageLoader(Context context) {
+        resources = context.getApplicationContext().getResources();
+        int maxBytes = (int) Math.min(MAX_CACHE_BYTES, Runtime.getRuntime().maxMemory() / 8);
+        cache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Provides the image loader shared by every screen of the app.
+     *
+     * @param context any context of the app
+     * @return the image loader
+     */
+    public static synchronized ImageLoader get(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Shows a drawable resource in a view, sampled down to the view's laid out or declared size.
+     *
+     * @param view       the view to show the image in
+     * @param resourceId the drawable resource ID
+     */
+    public void load(ImageView view, int resourceId) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        int width = view.getWidth() > 0 ? view.getWidth() : params != null ? params.width : 0;
+        int height = view.getHeight() > 0 ? view.getHeight() : params != null ? params.height : 0;
+        if (width <= 0 || height <= 0) {
+            width = height = resources.getDisplayMetrics().widthPixels;
+        }
+        load(view, resourceId, width, height);
+    }
+
+    /**
+     * Shows a drawable resource in a view, sampled down to at least the given size.
+     * A cached bitmap is shown at once; otherwise the view is cleared and the bitmap is shown once
+     * decoded, unless the view has been given another image in the meantime.
+     *
+     * @param view         the view to show the image in
+     * @param resourceId   the drawable resource ID
+     * @param targetWidth  the width the image is shown at, in pixels
+     * @param targetHeight the height the image is shown at, in pixels
+     */
+    public void load(ImageView view, int resourceId, int targetWidth, int targetHeight) {
+        String key = resourceId + ":" + targetWidth + "x" + targetHeight;
+        view.setTag(key);
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+        view.setImageDrawable(null);
+        List<ImageView> waiting = pending.get(key);
+        if (waiting != null) {
+            waiting.add(view);
+            return;
+        }
+        waiting = new ArrayList<>(1);
+        waiting.add(view);
+        pending.put(key, waiting);
+        decoder.execute(() -> {
+            Bitmap bitmap = decode(resourceId, targetWidth, targetHeight);
+            mainHandler.post(() -> deliver(key, bitmap));
+        });
+    }
+
+    /**
+     * Caches a decoded bitmap and shows it in the views still waiting for it.
+     */
+    private void deliver(String key, Bitmap bitmap) {
+        List<ImageView> waiting = pending.remove(key);
+        if (bitmap == null) {
+            return;
+        }
+        cache.put(key, bitmap);
+        for (ImageView view : waiting) {
+            if (key.equals(view.getTag())) {
+                view.setImageBitmap(bitmap);
+            }
+        }
+    }
+
+    /**
+     * Decodes a resource at the largest power-of-two reduction that still covers the target size.
+     * Density scaling is turned off, since the unqualified drawables would otherwise be scaled up
+     * to the screen density before being shown at view size anyway.
+     *
+     * @return the bitmap, or null if the resource could not be decoded
+     */
+    private Bitmap decode(int resourceId, int targetWidth, int targetHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resourceId, options);
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeResource(resources, resourceId, options);
+    }
+
+    private static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.rupizzeriaapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the pizzas of placed orders across the store's ovens.
+ * <p>
+ * Every placed order is split into one {@link Ticket} per pizza, due a fixed promise time after
+ * the order was placed and baking for as long as its {@link Crust} needs. Waiting tickets are
+ * started least slack first: the ticket with the earliest latest-start time (due time minus bake
+ * time) goes into the oven that frees up first. Among an order's pizzas, the slow deep dish
+ * therefore starts ahead of the thin crust, which keeps lateness down.
+ * </p>
+ * New tickets go into a lock-free intake queue, so placing an order never waits for scheduling.
+ * The waiting tickets and the ovens are only touched by {@link #dispatch(long)} under a lock.
+ * {@link #start()} runs dispatch on a background thread against the wall clock; simulations call
+ * {@link #dispatch(long)} with their own clock instead.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class KitchenScheduler implements Order.OrderListener {
+    /**
+     * The number of ovens a store has by default.
+     */
+    public static final int DEFAULT_OVENS = 4;
+
+    /**
+     * How long after an order is placed its pizzas are promised by default.
+     */
+    public static final long DEFAULT_PROMISE_MILLIS = 45 * 60_000L;
+
+    private static final long DEFAULT_BAKE_MILLIS = 10 * 60_000L;
+
+    private static final Comparator<Ticket> LEAST_SLACK_FIRST = (a, b) -> {
+        int bySlack = Long.compare(a.latestStartAt, b.latestStartAt);
+        return bySlack != 0 ? bySlack : Long.compare(a.sequence, b.sequence);
+    };
+
+    private final long promiseMillis;
+    private final ConcurrentLinkedQueue<Ticket> intake = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(LEAST_SLACK_FIRST);
+    private final long[] ovenFreeAt;
+    // Oven numbers as a binary min-heap on ovenFreeAt
+    private final int[] ovens;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final CopyOnWriteArrayList<TicketListener> ticketListeners = new CopyOnWriteArrayList<>();
+    private volatile Thread dispatcher;
+
+    /**
+     * One pizza of an order, waiting for or baking in an oven.
+     */
+    public static final class Ticket {
+        private final Order order;
+        private final Pizza pizza;
+        private final long bakeMillis;
+        private final long releasedAt;
+        private final long dueAt;
+        private final long latestStartAt;
+        private final long sequence;
+        private int oven = -1;
+        private long startAt;
+        private long finishAt;
+
+        Ticket(Order order, Pizza pizza, long bakeMillis, long releasedAt, long dueAt, long sequence) {
+            this.order = order;
+            this.pizza = pizza;
+            this.bakeMillis = bakeMillis;
+            this.releasedAt = releasedAt;
+            this.dueAt = dueAt;
+            this.latestStartAt = dueAt - bakeMillis;
+            this.sequence = sequence;
+        }
+
+        /**
+         * @return the order the pizza belongs to
+         */
+        public Order getOrder() {
+            return order;
+        }
+
+        /**
+         * @return the pizza to bake
+         */
+        public Pizza getPizza() {
+            return pizza;
+        }
+
+        /**
+         * @return how long the pizza bakes, in milliseconds
+         */
+        public long getBakeMillis() {
+            return bakeMillis;
+        }
+
+        /**
+         * @return when the pizza is due, in milliseconds since the epoch
+         */
+        public long getDueAt() {
+            return dueAt;
+        }
+
+        /**
+         * @return the oven the pizza was put in, or -1 if it is still waiting
+         */
+        public int getOven() {
+            return oven;
+        }
+
+        /**
+         * @return when the pizza went into the oven
+         */
+        public long getStartAt() {
+            return startAt;
+        }
+
+        /**
+         * @return when the pizza comes out of the oven
+         */
+        public long getFinishAt() {
+            return finishAt;
+        }
+
+        /**
+         * @return how late the pizza comes out of the oven, 0 if it is on time
+         */
+        public long getLatenessMillis() {
+            return Math.max(0, finishAt - dueAt);
+        }
+    }
+
+    /**
+     * Receives the tickets that go into an oven, e.g. for a kitchen display.
+     */
+    public interface TicketListener {
+        /**
+         * Called after a ticket has been put in an oven, on the thread that dispatched it.
+         *
+         * @param ticket the ticket
+         */
+        void onTicketStarted(Ticket ticket);
+    }
+
+    /**
+     * Creates a scheduler with {@link #DEFAULT_OVENS} ovens and the default promise time.
+     */
+    public KitchenScheduler() {
+        this(DEFAULT_OVENS, DEFAULT_PROMISE_MILLIS);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param ovenCount     the number of ovens
+     * @param promiseMillis how long after an order is placed its pizzas are due
+     * @throws IllegalArgumentException if there are no ovens
+     */
+    public KitchenScheduler(int ovenCount, long promiseMillis) {
+        if (ovenCount <= 0) {
+            throw new IllegalArgumentException("A kitchen needs at least one oven");
+        }
+        this.promiseMillis = promiseMillis;
+        ovenFreeAt = new long[ovenCount];
+        ovens = new int[ovenCount];
+        for (int i = 0; i < ovenCount; i++) {
+            ovens[i] = i;
+        }
+    }
+
+    /**
+     * Starts dispatching tickets against the wall clock on a background thread.
+     * Only the first call has any effect.
+     */
+    public synchronized void start() {
+        if (dispatcher == null) {
+            Thread thread = new Thread(this::dispatchLoop, "kitchen");
+            thread.setDaemon(true);
+            dispatcher = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public void onOrderPlaced(Order order) {
+        submit(order, order.getPlacedAt());
+    }
+
+    /**
+     * Canceled orders are dropped lazily: their tickets are discarded when they reach the front
+     * of the queue, so cancellation does not need to search the queue.
+     */
+    @Override
+    public void onOrderCanceled(Order order) {
+    }
+
+    /**
+     * Splits an order into one ticket per pizza and queues the tickets. Never blocks.
+     *
+     * @param order      the order
+     * @param releasedAt when the order came into the kitchen, in milliseconds
+     */
+    public void submit(Order order, long releasedAt) {
+        int pizzaCount = order.getPizzaCount();
+        if (pizzaCount == 0) {
+            return;
+        }
+        long dueAt = releasedAt + promiseMillis;
+        for (int line = 0, lines = order.getLineCount(); line < lines; line++) {
+            Pizza pizza = order.getLinePizza(line);
+            Crust crust = pizza.getCrust();
+            long bakeMillis = crust == null ? DEFAULT_BAKE_MILLIS : crust.getBakeMillis();
+            for (int i = order.getLineQuantity(line); i > 0; i--) {
+                intake.add(new Ticket(order, pizza, bakeMillis, releasedAt, dueAt, sequence.getAndIncrement()));
+            }
+        }
+        waitingCount.addAndGet(pizzaCount);
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Puts waiting tickets into every oven that is free at a time, least slack first.
+     *
+     * @param now the current time, in milliseconds
+     * @return the tickets that went into an oven, in the order they were started
+     */
+    public List<Ticket> dispatch(long now) {
+        List<Ticket> started = Collections.emptyList();
+        lock.lock();
+        try {
+            drainIntake();
+            while (!waiting.isEmpty() && ovenFreeAt[ovens[0]] <= now) {
+                Ticket ticket = waiting.poll();
+                waitingCount.decrementAndGet();
+                if (ticket.order.isCanceled()) {
+                    continue;
+                }
+                int oven = ovens[0];
+                ticket.oven = oven;
+                ticket.startAt = Math.max(now, ticket.releasedAt);
+                ticket.finishAt = ticket.startAt + ticket.bakeMillis;
+                ovenFreeAt[oven] = ticket.finishAt;
+                siftDown();
+                if (started.isEmpty()) {
+                    started = new ArrayList<>();
+                }
+                started.add(ticket);
+            }
+        } finally {
+            lock.unlock();
+        }
+        startedCount.addAndGet(started.size());
+        if (!ticketListeners.isEmpty()) {
+            for (Ticket ticket : started) {
+                for (TicketListener listener : ticketListeners) {
+                    try {
+                        listener.onTicketStarted(ticket);
+                    } catch (RuntimeException e) {
+                        Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+                    }
+                }
+            }
+        }
+        return started;
+    }
+
+    /**
+     * Finds when the next ticket can go into an oven.
+     *
+     * @return the time the first oven frees up, or -1 if no tickets are waiting
+     */
+    public long nextDispatchAt() {
+        lock.lock();
+        try {
+            drainIntake();
+            return waiting.isEmpty() ? -1 : ovenFreeAt[ovens[0]];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tickets waiting for an oven, including those of canceled orders
+     * not yet discarded.
+     *
+     * @return the waiting ticket count
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * Gets the number of tickets that have gone into an oven.
+     *
+     * @return the started ticket count
+     */
+    public long getStartedCount() {
+        return startedCount.get();
+    }
+
+    /**
+     * Gets the number of ovens.
+     *
+     * @return the oven count
+     */
+    public int getOvenCount() {
+        return ovens.length;
+    }
+
+    /**
+     * Registers a listener to be told about tickets going into an oven.
+     *
+     * @param listener the listener to add
+     */
+    public void addTicketListener(TicketListener listener) {
+        ticketListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addTicketListener(TicketListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeTicketListener(TicketListener listener) {
+        ticketListeners.remove(listener);
+    }
+
+    /**
+     * Runs on the dispatcher thread: dispatches, then sleeps until the next oven frees up
+     * or a new ticket arrives.
+     */
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            dispatch(System.currentTimeMillis());
+            long next = nextDispatchAt();
+            if (next < 0) {
+                LockSupport.park(this);
+            } else {
+                long delay = next - System.currentTimeMillis();
+                if (delay > 0) {
+                    LockSupport.parkNanos(this, delay * 1_000_000L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the tickets in the intake queue into the waiting queue. Called under the lock.
+     */
+    private void drainIntake() {
+        Ticket ticket;
+        while ((ticket = intake.poll()) != null) {
+            waiting.add(ticket);
+        }
+    }
+
+    /**
+     * Restores the oven heap after the oven at its root got a later free time. Called under the lock.
+     */
+    private void siftDown() {
+        int size = ovens.length;
+        int oven = ovens[0];
+        long freeAt = ovenFreeAt[oven];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ovenFreeAt[ovens[child + 1]] < ovenFreeAt[ovens[child]]) {
+                child++;
+            }
+            if (ovenFreeAt[ovens[child]] >= freeAt) {
+                break;
+            }
+            ovens[i] = ovens[child];
+            i = child;
+        }
+        ovens[i] = oven;
+    }
+}
@@ -2,18 +2,40 @@ package com.example.rupizzeriaapp;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.ImageView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * The main activity of the RU Pizzeria app.
  * Provides navigation to different features, including Chicago-style pizza, NY-style pizza,
  * current orders, and store orders.
  */
 public class MainActivity extends AppCompatActivity {
+    // Replays the journal and archives earlier days off the main thread, one load at a time
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-book-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ToppingInventory.LowStockListener lowStockWarning = (topping, remaining) ->
+            mainHandler.post(() -> Toast.makeText(this, "Running low on " + topping.getReceiptName() + ": "
+                    + remaining + " portions left", Toast.LENGTH_LONG).show());
+    private OrderJournal orderJournal;
+    private ImageView[] navigation;
 
     /**
      * Called when the activity is created.
@@ -27,24 +49,114 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        Metrics.setEnabled(getResources().getBoolean(R.bool.metrics_enabled));
+        OrderManager.getInstance().getInventory().addLowStockListener(lowStockWarning);
+
         ImageView chicagoPizzaImage = findViewById(R.id.chicago_pizza_image);
         ImageView nyPizzaImage = findViewById(R.id.ny_pizza_image);
         ImageView currentOrderImage = findViewById(R.id.shopping_cart_image);
         ImageView storeOrdersImage = findViewById(R.id.notepad_image);
 
-        setupImageHandlers(chicagoPizzaImage, ChicagoPizzaActivity.class);
-        setupImageHandlers(nyPizzaImage, NYPizzaActivity.class);
-        setupImageHandlers(currentOrderImage, CartActivity.class);
-        setupImageHandlers(storeOrdersImage, StoreOrdersActivity.class);
+        setupImageHandlers(chicagoPizzaImage, PizzaBuilderActivity.newIntent(this, PizzaStyle.CHICAGO));
+        setupImageHandlers(nyPizzaImage, PizzaBuilderActivity.newIntent(this, PizzaStyle.NEW_YORK));
+        setupImageHandlers(currentOrderImage, new Intent(this, CartActivity.class));
+        setupImageHandlers(storeOrdersImage, new Intent(this, StoreOrdersActivity.class));
+
+        navigation = new ImageView[] {chicagoPizzaImage, nyPizzaImage, currentOrderImage, storeOrdersImage};
+        setNavigationEnabled(false);
+        loadOrderBook(getFilesDir());
+    }
+
+    /**
+     * Restores the store orders saved by earlier runs and archives earlier days on a background
+     * thread, then enables navigation on the main thread, so no screen sees the order book or
+     * places an order before it is loaded.
+     *
+     * @param filesDir the app's files directory
+     */
+    private void loadOrderBook(File filesDir) {
+        loader.execute(() -> {
+            OrderJournal journal = null;
+            String failure = null;
+            try {
+                journal = OrderJournal.open(filesDir);
+            } catch (IOException e) {
+                failure = "Could not load saved orders";
+            }
+            if (!archiveEarlierDays(filesDir) && failure == null) {
+                failure = "Could not archive earlier orders";
+            }
+            OrderJournal loaded = journal;
+            String message = failure;
+            mainHandler.post(() -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                orderJournal = loaded;
+                setNavigationEnabled(true);
+                if (message != null) {
+                    Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                }
+            });
+        });
+    }
+
+    private void setNavigationEnabled(boolean enabled) {
+        for (ImageView image : navigation) {
+            image.setEnabled(enabled);
+            image.setAlpha(enabled ? 1.0f : 0.6f);
+        }
+    }
+
+    /**
+     * Moves the orders placed before today out of the store order book into the archives of the
+     * days they were placed on, so the order book only holds the current day's orders.
+     *
+     * @return false if an archive could not be written
+     */
+    private static boolean archiveEarlierDays(File filesDir) {
+        Calendar midnight = Calendar.getInstance();
+        OrderArchive.startOfDay(midnight);
+        File directory = new File(filesDir, "archives");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            OrderArchive.archiveOrdersPlacedBefore(directory, midnight.getTimeInMillis());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Warns that orders are no longer being saved if the order journal has failed.
+     */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (orderJournal != null && orderJournal.getFailure() != null) {
+            Toast.makeText(this, "Orders are no longer being saved: "
+                    + orderJournal.getFailure().getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    /**
+     * Stops warning about low topping stock once this screen is gone.
+     */
+    @Override
+    protected void onDestroy() {
+        OrderManager.getInstance().getInventory().removeLowStockListener(lowStockWarning);
+        super.onDestroy();
     }
 
     /**
      * Configures click and hover effects for images.
      *
      * @param imageView the ImageView to configure
-     * @param targetActivity the Activity to launch when image is clicked
+     * @param intent the intent that launches the Activity when image is clicked
      */
-    private void setupImageHandlers(ImageView imageView, final Class<?> targetActivity) {
+    private void setupImageHandlers(ImageView imageView, final Intent intent) {
         imageView.setOnTouchListener((v, event) -> {
             if (event.getAction() == MotionEvent.ACTION_DOWN) {
                 imageView.setAlpha(0.6f);
@@ -54,9 +166,6 @@ public class MainActivity extends AppCompatActivity {
             return false;
         });
 
-        imageView.setOnClickListener(v -> {
-            Intent intent = new Intent(MainActivity.this, targetActivity);
-            startActivity(intent);
-        });
+        imageView.setOnClickListener(v -> startActivity(intent));
     }
 }
\ No newline at end of file
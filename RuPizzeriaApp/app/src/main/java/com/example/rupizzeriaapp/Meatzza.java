@@ -1,6 +1,4 @@
 package com.example.rupizzeriaapp;
-import java.util.ArrayList;
-import java.util.Arrays;
 
 /**
  * Represents a Meatzza pizza, a predefined type of pizza in the pizzeria menu.
@@ -14,30 +12,16 @@ public class Meatzza extends Pizza {
      */
     public Meatzza() {
         super();
-        setToppings(new ArrayList<>(Arrays.asList(
-                Topping.SAUSAGE, Topping.PEPPERONI,
-                Topping.BEEF, Topping.HAM
-        )));
+        setToppingMask(PizzaKind.MEATZZA.getPresetToppingMask());
     }
 
     /**
-     * Calculates the price of the Meatzza pizza based on its size.
+     * Identifies this pizza as a Meatzza pizza, which determines its price in the {@link PriceTable}.
      *
-     * @return the price of the pizza:
-     *         - $17.99 for SMALL
-     *         - $19.99 for MEDIUM
-     *         - $21.99 for LARGE
-     *         - $0.00 for an unspecified size
+     * @return {@link PizzaKind#MEATZZA}
      */
     @Override
-    public double price() {
-        double basePrice;
-        switch (getSize()) {
-            case SMALL: basePrice = 17.99; break;
-            case MEDIUM: basePrice = 19.99; break;
-            case LARGE: basePrice = 21.99; break;
-            default: basePrice = 0;
-        }
-        return basePrice;
+    public PizzaKind getKind() {
+        return PizzaKind.MEATZZA;
     }
 }
\ No newline at end of file
@@ -0,0 +1,399 @@
+package com.example.rupizzeriaapp;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events and records latencies on the app's hot paths, so that slow store tablets can be
+ * found from the field. Recording is off until {@link #setEnabled(boolean)} turns it on; while it is
+ * off, {@link #start()} and {@link #increment(Counter)} only read one flag.
+ * <p>
+ * A caller times a call with {@code long start = Metrics.start();} before it and
+ * {@code Metrics.stop(Probe.X, start);} after it. Latencies go into log-scale histograms in the
+ * style of HdrHistogram: every power of two of nanoseconds is split into {@link #SUB_BUCKETS}
+ * buckets, so a recorded value is off by at most an eighth. Each thread records into its own
+ * counters, with no locks or shared cache lines, and {@link #snapshot()} adds up the threads' counters.
+ * </p>
+ * The counts of threads that have ended are folded together, so short-lived threads do not pile up.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class Metrics {
+    /**
+     * The calls that are timed.
+     */
+    public enum Probe {
+        PLACE_ORDER,
+        ORDER_TOTAL,
+        FACTORY_CREATE,
+        TOPPING_BIND
+    }
+
+    /**
+     * The events that are counted.
+     */
+    public enum Counter {
+        OUT_OF_STOCK_REFUSALS,
+        PLACEMENT_QUEUE_FULL,
+        LISTENER_FAILURES
+    }
+
+    /**
+     * The number of buckets each power of two of nanoseconds is split into.
+     */
+    public static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BITS = 3;
+    // Latencies are capped at 2^40 ns, about 18 minutes
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final Probe[] PROBES = Probe.values();
+    private static final Counter[] COUNTERS = Counter.values();
+    // Per probe: the buckets, then the sum and the maximum
+    private static final int PROBE_SLOTS = BUCKETS + 2;
+    private static final int COUNTERS_OFFSET = PROBES.length * PROBE_SLOTS;
+    private static final int SLOTS = COUNTERS_OFFSET + COUNTERS.length;
+
+    private static volatile boolean enabled;
+
+    private static final List<Recorder> recorders = new ArrayList<>();
+    private static final Recorder retired = new Recorder(null);
+    private static final ThreadLocal<Recorder> current = new ThreadLocal<Recorder>() {
+        @Override
+        protected Recorder initialValue() {
+            return register();
+        }
+    };
+
+    /**
+     * One thread's counters. Only the owning thread writes them, with ordered stores, so they are
+     * never lost and can be read from any thread.
+     */
+    private static final class Recorder {
+        final WeakReference<Thread> owner;
+        final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+        Recorder(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        void add(int slot, long delta) {
+            slots.lazySet(slot, slots.get(slot) + delta);
+        }
+
+        void max(int slot, long value) {
+            if (value > slots.get(slot)) {
+                slots.lazySet(slot, value);
+            }
+        }
+
+        boolean isRetired() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Turns recording on or off. Counts already recorded are kept.
+     *
+     * @param enabled true to record
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * @return true if recording is on
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a call.
+     *
+     * @return the start time to pass to {@link #stop(Probe, long)}
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the latency of a call started with {@link #start()}. Does nothing if recording was
+     * off when the call started.
+     *
+     * @param probe the call timed
+     * @param start the value returned by {@link #start()}
+     */
+    public static void stop(Probe probe, long start) {
+        if (start != NOT_TIMED) {
+            record(probe, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a latency directly.
+     *
+     * @param probe the call timed
+     * @param nanos the latency in nanoseconds
+     */
+    public static void record(Probe probe, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        int base = probe.ordinal() * PROBE_SLOTS;
+        Recorder recorder = current.get();
+        recorder.add(base + bucketOf(value), 1);
+        recorder.add(base + BUCKETS, value);
+        recorder.max(base + BUCKETS + 1, value);
+    }
+
+    /**
+     * Counts one event.
+     *
+     * @param counter the event
+     */
+    public static void increment(Counter counter) {
+        if (enabled) {
+            current.get().add(COUNTERS_OFFSET + counter.ordinal(), 1);
+        }
+    }
+
+    /**
+     * Adds up what every thread has recorded so far.
+     *
+     * @return the snapshot
+     */
+    public static Snapshot snapshot() {
+        long[] totals = new long[SLOTS];
+        synchronized (recorders) {
+            retireEnded();
+            addTo(totals, retired);
+            for (Recorder recorder : recorders) {
+                addTo(totals, recorder);
+            }
+        }
+        return new Snapshot(totals);
+    }
+
+    /**
+     * Finds the bucket a latency falls in. Values below {@link #SUB_BUCKETS} have a bucket each;
+     * above that, each power of two is split into {@link #SUB_BUCKETS} equal buckets.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the highest latency that falls in a bucket
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static Recorder register() {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        synchronized (recorders) {
+            retireEnded();
+            recorders.add(recorder);
+        }
+        return recorder;
+    }
+
+    /**
+     * Folds the counts of threads that have ended into {@link #retired}. Must hold the lock.
+     */
+    private static void retireEnded() {
+        for (Iterator<Recorder> it = recorders.iterator(); it.hasNext(); ) {
+            Recorder recorder = it.next();
+            if (recorder.isRetired()) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    if (isMaxSlot(slot)) {
+                        retired.max(slot, recorder.slots.get(slot));
+                    } else {
+                        retired.add(slot, recorder.slots.get(slot));
+                    }
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean isMaxSlot(int slot) {
+        return slot < COUNTERS_OFFSET && slot % PROBE_SLOTS == BUCKETS + 1;
+    }
+
+    private static void addTo(long[] totals, Recorder recorder) {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            long value = recorder.slots.get(slot);
+            if (isMaxSlot(slot)) {
+                totals[slot] = Math.max(totals[slot], value);
+            } else {
+                totals[slot] += value;
+            }
+        }
+    }
+
+    /**
+     * The counts and latencies recorded up to one moment.
+     */
+    public static final class Snapshot {
+        private final long[] slots;
+
+        private Snapshot(long[] slots) {
+            this.slots = slots;
+        }
+
+        /**
+         * Gets the number of calls timed.
+         *
+         * @param probe the call
+         * @return the count
+         */
+        public long getCount(Probe probe) {
+            long count = 0;
+            int base = probe.ordinal() * PROBE_SLOTS;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                count += slots[base + bucket];
+            }
+            return count;
+        }
+
+        /**
+         * Gets the mean latency of a call.
+         *
+         * @param probe the call
+         * @return the mean in nanoseconds, or 0 if no call was timed
+         */
+        public long getMeanNanos(Probe probe) {
+            long count = getCount(probe);
+            return count == 0 ? 0 : slots[probe.ordinal() * PROBE_SLOTS + BUCKETS] / count;
+        }
+
+        /**
+         * Gets the highest latency of a call. In a snapshot from {@link #minus(Snapshot)}, this is
+         * the highest of all time.
+         *
+         * @param probe the call
+         * @return the maximum in nanoseconds
+         */
+        public long getMaxNanos(Probe probe) {
+            return slots[probe.ordinal() * PROBE_SLOTS + BUCKETS + 1];
+        }
+
+        /**
+         * Gets a percentile of the latencies of a call, as the highest value in its bucket.
+         *
+         * @param probe      the call
+         * @param percentile the percentile, from 0 to 100
+         * @return the latency in nanoseconds, or 0 if no call was timed
+         */
+        public long getPercentileNanos(Probe probe, double percentile) {
+            long count = getCount(probe);
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+            int base = probe.ordinal() * PROBE_SLOTS;
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += slots[base + bucket];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(bucket), getMaxNanos(probe));
+                }
+            }
+            return getMaxNanos(probe);
+        }
+
+        /**
+         * Gets the number of times an event happened.
+         *
+         * @param counter the event
+         * @return the count
+         */
+        public long getCount(Counter counter) {
+            return slots[COUNTERS_OFFSET + counter.ordinal()];
+        }
+
+        /**
+         * Computes what was recorded between an earlier snapshot and this one.
+         *
+         * @param earlier a snapshot taken before this one
+         * @return the difference
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] difference = slots.clone();
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (!isMaxSlot(slot)) {
+                    difference[slot] -= earlier.slots[slot];
+                }
+            }
+            return new Snapshot(difference);
+        }
+
+        /**
+         * Formats the snapshot as one line per call and one per event, e.g.
+         * {@code PLACE_ORDER count=12 mean=41210ns p50=38911ns p90=61439ns p99=94207ns max=96320ns}.
+         *
+         * @return the lines
+         */
+        public List<String> toLines() {
+            List<String> lines = new ArrayList<>(PROBES.length + COUNTERS.length);
+            for (Probe probe : PROBES) {
+                lines.add(probe.name() + " count=" + getCount(probe)
+                        + " mean=" + getMeanNanos(probe) + "ns"
+                        + " p50=" + getPercentileNanos(probe, 50) + "ns"
+                        + " p90=" + getPercentileNanos(probe, 90) + "ns"
+                        + " p99=" + getPercentileNanos(probe, 99) + "ns"
+                        + " max=" + getMaxNanos(probe) + "ns");
+            }
+            for (Counter counter : COUNTERS) {
+                lines.add(counter.name() + " count=" + getCount(counter));
+            }
+            return lines;
+        }
+
+        /**
+         * Writes the snapshot to a file, replacing any file already there.
+         *
+         * @param file the file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeTo(File file) throws IOException {
+            try (Writer out = new FileWriter(file)) {
+                for (String line : toLines()) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.join("\n", toLines());
+        }
+    }
+}
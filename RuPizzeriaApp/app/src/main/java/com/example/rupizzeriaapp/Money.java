@@ -0,0 +1,61 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Utility methods for money amounts held as a primitive {@code long} number of cents.
+ * All pricing in the app is done in whole cents so that totals add up exactly;
+ * amounts are only turned into text when they are displayed.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class Money {
+    /**
+     * The denominator for rates, so a rate of 6625 means 6.625%.
+     */
+    public static final long RATE_SCALE = 100_000;
+
+    private Money() {
+    }
+
+    /**
+     * Applies a rate to an amount, rounding half up to the nearest cent.
+     * Negative amounts are rounded half away from zero so that refunds mirror charges.
+     *
+     * @param cents the amount in cents
+     * @param rate  the rate in units of 1/{@link #RATE_SCALE}
+     * @return the rounded amount in cents
+     */
+    public static long applyRate(long cents, long rate) {
+        long scaled = cents * rate;
+        long half = RATE_SCALE / 2;
+        return scaled >= 0 ? (scaled + half) / RATE_SCALE : -((-scaled + half) / RATE_SCALE);
+    }
+
+    /**
+     * Formats an amount as dollars with exactly two decimal places, e.g. 1699 as "16.99".
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount, without a currency symbol
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(12), cents).toString();
+    }
+
+    /**
+     * Appends an amount as dollars with exactly two decimal places, e.g. 1699 as "16.99".
+     *
+     * @param sb    the builder to append to
+     * @param cents the amount in cents
+     * @return the same builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long remainder = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (remainder < 10) {
+            sb.append('0');
+        }
+        return sb.append(remainder);
+    }
+}
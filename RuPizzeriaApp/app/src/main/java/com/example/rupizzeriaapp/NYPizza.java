@@ -10,63 +10,85 @@ package com.example.rupizzeriaapp;
  * @see PizzaFactory
  */
 public class NYPizza implements PizzaFactory {
-
+    private static final Pizza[] DELUXE = PizzaTemplates.bySize(PizzaKind.DELUXE, Crust.NYDeluxe);
+    private static final Pizza[] MEATZZA = PizzaTemplates.bySize(PizzaKind.MEATZZA, Crust.NYMeatzza);
+    private static final Pizza[] BBQ_CHICKEN = PizzaTemplates.bySize(PizzaKind.BBQ_CHICKEN, Crust.NYBBQChicken);
 
     /**
      * Creates a New York-style Deluxe pizza.
      *
      * @return a {@link Deluxe} pizza with:
      *         - New York Deluxe crust
-     *         - Toppings: Sausage, Pepperoni, Green Pepper, Onion, Mushroom
+     *         - Preset toppings: Sausage, Pepperoni, Green Pepper, Onion, Mushroom
      */
     @Override
     public Pizza createDeluxe() {
         Pizza pizza = new Deluxe();
         pizza.setCrust(Crust.NYDeluxe);
-        pizza.addTopping(Topping.SAUSAGE);
-        pizza.addTopping(Topping.PEPPERONI);
-        pizza.addTopping(Topping.GREEN_PEPPER);
-        pizza.addTopping(Topping.ONION);
-        pizza.addTopping(Topping.MUSHROOM);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared New York-style Deluxe pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Deluxe} pizza shared by every caller
+     */
+    @Override
+    public Pizza createDeluxe(Size size) {
+        return DELUXE[size.ordinal()];
+    }
+
     /**
      * Creates a New York-style Meatzza pizza.
      *
      * @return a {@link Meatzza} pizza with:
      *         - New York Meatzza crust
-     *         - Toppings: Sausage, Pepperoni, Beef, Ham
+     *         - Preset toppings: Sausage, Pepperoni, Beef, Ham
      */
     @Override
     public Pizza createMeatzza() {
         Pizza pizza = new Meatzza();
         pizza.setCrust(Crust.NYMeatzza);
-        pizza.addTopping(Topping.SAUSAGE);
-        pizza.addTopping(Topping.PEPPERONI);
-        pizza.addTopping(Topping.BEEF);
-        pizza.addTopping(Topping.HAM);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared New York-style Meatzza pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Meatzza} pizza shared by every caller
+     */
+    @Override
+    public Pizza createMeatzza(Size size) {
+        return MEATZZA[size.ordinal()];
+    }
+
     /**
      * Creates a New York-style BBQ Chicken pizza.
      *
      * @return a {@link BBQChicken} pizza with:
      *         - New York BBQ Chicken crust
-     *         - Toppings: BBQ Chicken, Green Pepper, Provolone, Cheddar
+     *         - Preset toppings: BBQ Chicken, Green Pepper, Provolone, Cheddar
      */
     @Override
     public Pizza createBBQChicken() {
         Pizza pizza = new BBQChicken();
         pizza.setCrust(Crust.NYBBQChicken);
-        pizza.addTopping(Topping.BBQ_CHICKEN);
-        pizza.addTopping(Topping.GREEN_PEPPER);
-        pizza.addTopping(Topping.PROVOLONE);
-        pizza.addTopping(Topping.CHEDDAR);
         return pizza;
     }
 
+    /**
+     * Retrieves the shared New York-style BBQ Chicken pizza of a size.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link BBQChicken} pizza shared by every caller
+     */
+    @Override
+    public Pizza createBBQChicken(Size size) {
+        return BBQ_CHICKEN[size.ordinal()];
+    }
+
     /**
      * Creates a New York-style Build Your Own pizza.
      *
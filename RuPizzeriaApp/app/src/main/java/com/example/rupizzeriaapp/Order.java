@@ -2,27 +2,209 @@ package com.example.rupizzeriaapp;
 
 
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Represents an order in the pizzeria system.
  * Each order contains a unique order number, a list of pizzas, and provides methods to calculate
  * subtotal, tax, and total cost. Orders can be placed and tracked in a static list of store orders.
+ * Order numbers and the store order list are safe to use from several threads at once, so orders
+ * taken at different terminals can be placed and canceled concurrently without locking.
+ * Placed orders are indexed by order number, so placing, finding and canceling an order take
+ * constant time however many orders the store holds.
+ * Pizzas are held as line items, each a frozen pizza, its price and a quantity. Identical pizzas,
+ * with the same kind, crust, size, toppings and price, share a line, so memory and pricing scale
+ * with the number of distinct pizzas rather than the number of pies. Indexes still count every
+ * pie, in line order.
  * @author Sahil Patel, Shreyas Santosh
  */
 public class Order {
-    private static int nextOrderNumber = 1;
-    private int orderNumber;
-    private ArrayList<Pizza> pizzas;
-    private static final double TAX_RATE = 0.06625;
-    private static ArrayList<Order> storeOrders = new ArrayList<>();
+    private static final int NEW = 0;
+    private static final int PLACING = 1;
+    private static final int PLACED = 2;
+    private static final int CANCELED = 3;
+    // A copy kept for reading, which can never be placed or canceled
+    private static final int DETACHED = 4;
+    // Moved out of the order book into an OrderArchive
+    private static final int ARCHIVED = 5;
+    // Not a state: the event told to listeners when an order is imported from an export
+    private static final int IMPORTED = 6;
+    private static final AtomicIntegerFieldUpdater<Order> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Order.class, "state");
+
+    private static final int INITIAL_LINES = 4;
+
+    private static final AtomicInteger nextOrderNumber = new AtomicInteger(1);
+    private final int orderNumber;
+    private volatile int state = NEW;
+    private volatile long placedAt;
+    // True if the order was put back into the order book without notifying listeners
+    private boolean restored;
+    // The inventory this order's toppings were reserved from, if any, and the portions taken
+    private ToppingInventory reservedFrom;
+    private int[] reservedPortions;
+    private Pizza[] linePizzas;
+    private long[] lineKeys;
+    private long[] linePrices;
+    private int[] lineQuantities;
+    private int lineCount;
+    private int pizzaCount;
+    private long subtotal;
+    /**
+     * The sales tax rate of 6.625%, in units of 1/{@link Money#RATE_SCALE}.
+     */
+    private static final long TAX_RATE = 6625;
+    /**
+     * Placed orders in the order they were placed. Canceled and archived orders are skipped when
+     * reading and removed in bulk once they outnumber the live ones, so canceling never scans the queue.
+     */
+    private static final ConcurrentLinkedQueue<Order> storeOrders = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentHashMap<Integer, Order> ordersByNumber = new ConcurrentHashMap<>();
+    private static final AtomicInteger closedInQueue = new AtomicInteger();
+    private static final AtomicBoolean compacting = new AtomicBoolean();
+    private static final CopyOnWriteArrayList<OrderListener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile ToppingInventory inventory;
+
+    /**
+     * Listener interface for reacting to orders being placed and canceled.
+     * Listeners are called on the thread that places or cancels the order, so they should be quick.
+     * An exception thrown by a listener does not stop the placement or cancellation.
+     */
+    public interface OrderListener {
+        /**
+         * Called when an order has been placed. It is called before the order can be canceled,
+         * so for any one order this always comes before {@link #onOrderCanceled(Order)}.
+         *
+         * @param order The order that was placed.
+         */
+        void onOrderPlaced(Order order);
+
+        /**
+         * Called when a placed order has been canceled.
+         *
+         * @param order The order that was canceled.
+         */
+        void onOrderCanceled(Order order);
+
+        /**
+         * Called when a placed order has been moved out of the order book into an
+         * {@link OrderArchive}. It still counts as a sale, so by default nothing happens.
+         *
+         * @param order The order that was archived.
+         */
+        default void onOrderArchived(Order order) {
+        }
+
+        /**
+         * Called when an order placed elsewhere, e.g. on another tablet, has been imported into
+         * the order book. It is called before the order can be canceled. By default nothing
+         * happens, since the order was already baked and counted where it was placed.
+         *
+         * @param order The order that was imported.
+         */
+        default void onOrderImported(Order order) {
+        }
+    }
 
     /**
      * Constructs an Order with a unique order number and initializes an empty list of pizzas.
      */
     public Order() {
-        this.orderNumber = nextOrderNumber++;
-        this.pizzas = new ArrayList<>();
+        this.orderNumber = nextOrderNumber.getAndIncrement();
+        this.linePizzas = new Pizza[INITIAL_LINES];
+        this.lineKeys = new long[INITIAL_LINES];
+        this.linePrices = new long[INITIAL_LINES];
+        this.lineQuantities = new int[INITIAL_LINES];
+    }
+
+    /**
+     * Constructs an Order with a known order number, for rebuilding orders that were placed earlier.
+     * Orders created afterwards are numbered after it.
+     *
+     * @param orderNumber the order number
+     * @param placedAt    the time the order was placed, in milliseconds since the epoch
+     */
+    Order(int orderNumber, long placedAt) {
+        this(orderNumber, placedAt, NEW);
+        nextOrderNumber.accumulateAndGet(orderNumber + 1, Math::max);
+    }
+
+    private Order(int orderNumber, long placedAt, int state) {
+        this.orderNumber = orderNumber;
+        this.placedAt = placedAt;
+        this.state = state;
+        this.linePizzas = new Pizza[INITIAL_LINES];
+        this.lineKeys = new long[INITIAL_LINES];
+        this.linePrices = new long[INITIAL_LINES];
+        this.lineQuantities = new int[INITIAL_LINES];
+    }
+
+    /**
+     * Creates a detached order with a known order number, for reading an order kept somewhere
+     * else. A detached order cannot be placed or canceled, and unlike
+     * {@link #Order(int, long)} it does not change the numbers given to new orders.
+     *
+     * @param orderNumber the order number
+     * @param placedAt    the time the order was placed, in milliseconds since the epoch
+     * @return the empty detached order
+     */
+    static Order detached(int orderNumber, long placedAt) {
+        return new Order(orderNumber, placedAt, DETACHED);
+    }
+
+    /**
+     * Copies this order's number, placement time, line items and subtotal into a detached order,
+     * see {@link #detached(int, long)}. Later changes to either order do not affect the other.
+     *
+     * @return the copy
+     */
+    Order copy() {
+        Order copy = detached(orderNumber, placedAt);
+        copy.ensureLineCapacity(lineCount);
+        System.arraycopy(linePizzas, 0, copy.linePizzas, 0, lineCount);
+        System.arraycopy(lineKeys, 0, copy.lineKeys, 0, lineCount);
+        System.arraycopy(linePrices, 0, copy.linePrices, 0, lineCount);
+        System.arraycopy(lineQuantities, 0, copy.lineQuantities, 0, lineCount);
+        copy.lineCount = lineCount;
+        copy.pizzaCount = pizzaCount;
+        copy.subtotal = subtotal;
+        return copy;
+    }
+
+    /**
+     * Moves the line items of another unplaced order to the end of this one, at the prices they
+     * were added at, e.g. pizzas added to a new cart while this order was being refused.
+     *
+     * @param other the order to take the line items from, which is left empty
+     */
+    void takeLinesFrom(Order other) {
+        for (int i = 0; i < other.lineCount; i++) {
+            long price = other.linePrices[i];
+            int quantity = other.lineQuantities[i];
+            int line = findLine(other.lineKeys[i], price);
+            if (line >= 0) {
+                lineQuantities[line] += quantity;
+            } else {
+                ensureLineCapacity(lineCount + 1);
+                linePizzas[lineCount] = other.linePizzas[i];
+                lineKeys[lineCount] = other.lineKeys[i];
+                linePrices[lineCount] = price;
+                lineQuantities[lineCount++] = quantity;
+            }
+            pizzaCount += quantity;
+            subtotal += price * quantity;
+        }
+        other.clearOrderDisplay();
     }
 
     /**
@@ -35,101 +217,628 @@ public class Order {
     }
 
     /**
-     * Adds a pizza to this order.
+     * Adds a pizza to this order and adds its price to the running subtotal.
+     * The order keeps a frozen copy, since it may be shared with identical pizzas added later.
      *
      * @param pizza the {@link Pizza} to add
      * @return true if the pizza was successfully added, false otherwise
      */
     public boolean addPizza(Pizza pizza) {
-        if(pizza != null) {
-            pizzas.add(pizza);
-            return true;
+        return addPizza(pizza, 1);
+    }
+
+    /**
+     * Adds several identical pizzas to this order and adds their price to the running subtotal.
+     * They join the line item of identical pizzas if there is one; otherwise a frozen copy of the
+     * pizza starts a new line, so the caller's pizza stays changeable and later changes to it do
+     * not reach the order.
+     *
+     * @param pizza    the {@link Pizza} to add
+     * @param quantity the number of pizzas
+     * @return true if the pizzas were successfully added, false otherwise
+     */
+    public boolean addPizza(Pizza pizza, int quantity) {
+        return pizza != null && addPizza(pizza, quantity, pizza.priceCents());
+    }
+
+    /**
+     * Adds several identical pizzas at a known unit price rather than the current menu price,
+     * for rebuilding an order with the prices it was placed at.
+     *
+     * @param pizza      the {@link Pizza} to add
+     * @param quantity   the number of pizzas
+     * @param priceCents the price of each pizza in cents
+     * @return true if the pizzas were successfully added, false otherwise
+     */
+    boolean addPizza(Pizza pizza, int quantity, long priceCents) {
+        if (pizza == null || quantity <= 0 || pizzaCount + quantity < 0) {
+            return false;
         }
-        return false;
+        long key = PizzaSpec.configurationKey(pizza);
+        long price = priceCents;
+        int line = findLine(key, price);
+        if (line >= 0) {
+            lineQuantities[line] += quantity;
+        } else {
+            ensureLineCapacity(lineCount + 1);
+            linePizzas[lineCount] = pizza.frozenCopy();
+            lineKeys[lineCount] = key;
+            linePrices[lineCount] = price;
+            lineQuantities[lineCount++] = quantity;
+        }
+        pizzaCount += quantity;
+        subtotal += price * quantity;
+        return true;
     }
 
+    /**
+     * Adds a batch of pizzas described by {@link PizzaSpec} values, each joining the line item of
+     * identical pizzas if there is one. Every spec is validated and priced against the current {@link PriceTable} in a single pass
+     * before anything is added, so either the whole batch is added or, if any spec is invalid,
+     * nothing is.
+     *
+     * @param specs the pizzas to add, see {@link PizzaSpec#of(PizzaKind, PizzaStyle, Size, int, int)}
+     * @return the price of the batch in cents
+     * @throws IllegalArgumentException if a spec is invalid or the order would hold too many pizzas
+     */
+    public long addBatch(long[] specs) {
+        PriceTable prices = PriceTable.getCurrent();
+        long[] keys = new long[specs.length];
+        long[] unitPrices = new long[specs.length];
+        long batchPizzaCount = pizzaCount;
+        long batchPrice = 0;
+        for (int i = 0; i < specs.length; i++) {
+            long spec = specs[i];
+            PizzaSpec.validate(spec);
+            int quantity = PizzaSpec.quantity(spec);
+            batchPizzaCount += quantity;
+            if (batchPizzaCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many pizzas in one order");
+            }
+            unitPrices[i] = prices.price(PizzaSpec.kind(spec), PizzaSpec.size(spec),
+                    Integer.bitCount(PizzaSpec.toppingMask(spec)));
+            batchPrice += quantity * unitPrices[i];
+            keys[i] = PizzaSpec.configurationKey(spec);
+        }
+        for (int i = 0; i < specs.length; i++) {
+            int line = findLine(keys[i], unitPrices[i]);
+            if (line >= 0) {
+                lineQuantities[line] += PizzaSpec.quantity(specs[i]);
+            } else {
+                ensureLineCapacity(lineCount + 1);
+                linePizzas[lineCount] = PizzaSpec.toPizza(specs[i]);
+                lineKeys[lineCount] = keys[i];
+                linePrices[lineCount] = unitPrices[i];
+                lineQuantities[lineCount++] = PizzaSpec.quantity(specs[i]);
+            }
+        }
+        pizzaCount = (int) batchPizzaCount;
+        subtotal += batchPrice;
+        return batchPrice;
+    }
 
     /**
-     * Removes a pizza from this order based on its index.
+     * Removes a pizza from this order based on its index and takes its price off the running subtotal.
+     * Indexes count every pizza, so a line item of three pizzas takes up three indexes.
      *
      * @param index the index of the pizza to remove
      * @return true if the pizza was successfully removed, false otherwise
      */
     public boolean removePizza(int index) {
-        if(index < pizzas.size() && index >= 0) {
-            pizzas.remove(index);
-            return true;
+        int line = lineOf(index);
+        if (line < 0) {
+            return false;
+        }
+        long price = linePrices[line];
+        if (--lineQuantities[line] == 0) {
+            System.arraycopy(linePizzas, line + 1, linePizzas, line, lineCount - line - 1);
+            System.arraycopy(lineKeys, line + 1, lineKeys, line, lineCount - line - 1);
+            System.arraycopy(linePrices, line + 1, linePrices, line, lineCount - line - 1);
+            System.arraycopy(lineQuantities, line + 1, lineQuantities, line, lineCount - line - 1);
+            linePizzas[--lineCount] = null;
+        }
+        pizzaCount--;
+        subtotal -= price;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of pizzas in this order.
+     *
+     * @return the pizza count
+     */
+    public int getPizzaCount() {
+        return pizzaCount;
+    }
+
+    /**
+     * Retrieves a pizza in this order by its index.
+     *
+     * @param index the index of the pizza
+     * @return the {@link Pizza} at that index
+     * @throws IndexOutOfBoundsException if there is no pizza at that index
+     */
+    public Pizza getPizza(int index) {
+        int line = lineOf(index);
+        if (line < 0) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + pizzaCount);
         }
-        return false;
+        return linePizzas[line];
+    }
+
+    /**
+     * Retrieves the pizzas in this order, one element per pizza.
+     * The list is a read-only view so that the running subtotal cannot drift from its contents;
+     * use {@link #addPizza(Pizza)} and {@link #removePizza(int)} to change the order.
+     *
+     * @return a read-only {@link List} of pizzas
+     */
+    public List<Pizza> getPizzas() {
+        return new AbstractList<Pizza>() {
+            @Override
+            public Pizza get(int index) {
+                return getPizza(index);
+            }
+
+            @Override
+            public int size() {
+                return pizzaCount;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the number of line items in this order.
+     *
+     * @return the line count
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Retrieves the pizza of a line item, shared by every pizza of the line.
+     *
+     * @param line the index of the line item
+     * @return the {@link Pizza} of the line
+     */
+    public Pizza getLinePizza(int line) {
+        checkLine(line);
+        return linePizzas[line];
+    }
+
+    /**
+     * Retrieves the number of pizzas in a line item.
+     *
+     * @param line the index of the line item
+     * @return the quantity
+     */
+    public int getLineQuantity(int line) {
+        checkLine(line);
+        return lineQuantities[line];
     }
 
     /**
-     * Retrieves the list of pizzas in this order.
+     * Retrieves the price of each pizza in a line item, as it was when the pizzas were added.
      *
-     * @return an {@link ArrayList} of pizzas
+     * @param line the index of the line item
+     * @return the unit price in cents
      */
-    public ArrayList<Pizza> getPizzas() {
-        return pizzas;
+    public long getLinePriceCents(int line) {
+        checkLine(line);
+        return linePrices[line];
     }
 
     /**
-     * Calculates the subtotal of the order by summing up the prices of all pizzas.
+     * Finds the line item of a configuration at a price. Orders have few distinct configurations,
+     * so a scan over the primitive keys is cheaper than maintaining a map. Identical pizzas added
+     * before and after a price change go on separate lines, so every line has one unit price.
      *
-     * @return the subtotal as a double
+     * @return the line, or -1 if no line has that configuration and price
      */
-    public double getSubtotal() {
-        double subtotal = 0;
-        for (Pizza pizza : pizzas) {
-            subtotal += pizza.price();
+    private int findLine(long key, long price) {
+        for (int line = 0; line < lineCount; line++) {
+            if (lineKeys[line] == key && linePrices[line] == price) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the line item holding the pizza at an index.
+     *
+     * @return the line, or -1 if there is no pizza at that index
+     */
+    private int lineOf(int index) {
+        if (index < 0 || index >= pizzaCount) {
+            return -1;
+        }
+        for (int line = 0; ; line++) {
+            index -= lineQuantities[line];
+            if (index < 0) {
+                return line;
+            }
         }
+    }
+
+    private void checkLine(int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " of " + lineCount);
+        }
+    }
+
+    private void ensureLineCapacity(int lines) {
+        if (lines > linePizzas.length) {
+            int capacity = Math.max(lines, linePizzas.length * 2);
+            linePizzas = Arrays.copyOf(linePizzas, capacity);
+            lineKeys = Arrays.copyOf(lineKeys, capacity);
+            linePrices = Arrays.copyOf(linePrices, capacity);
+            lineQuantities = Arrays.copyOf(lineQuantities, capacity);
+        }
+    }
+
+    /**
+     * Retrieves the subtotal of the order, kept up to date as pizzas are added and removed.
+     *
+     * @return the subtotal in cents
+     */
+    public long getSubtotalCents() {
         return subtotal;
     }
 
 
     /**
      * Calculates the tax for the order based on the subtotal and tax rate.
+     * The tax is charged once on the whole subtotal and rounded half up to the nearest cent.
      *
-     * @return the tax amount as a double
+     * @return the tax amount in cents
      */
-    public double getTax() {
-        return getSubtotal() * TAX_RATE;
+    public long getTaxCents() {
+        return Money.applyRate(subtotal, TAX_RATE);
     }
 
     /**
      * Calculates the total cost of the order, including tax.
      *
-     * @return the total amount as a double
+     * @return the total amount in cents
      */
-    public double getTotal() {
-        return getSubtotal() + getTax();
+    public long getTotalCents() {
+        long start = Metrics.start();
+        long total = subtotal + getTaxCents();
+        Metrics.stop(Metrics.Probe.ORDER_TOTAL, start);
+        return total;
     }
 
     /**
      * Places the order, adding it to the static list of all store orders.
-     * Ensures the order is not added multiple times.
+     * Ensures the order is not added multiple times, even when placed from several threads at once.
+     * If a {@link ToppingInventory} is set, the order's toppings are reserved first, and an order
+     * short of any topping is refused and can be placed again later.
+     *
+     * @return true if the order was placed by this call, false if it had already been placed
+     * or a topping is out of stock
      */
-    public void placeOrder() {
-        if (!storeOrders.contains(this)) {
+    public boolean placeOrder() {
+        long start = Metrics.start();
+        boolean placed = place();
+        Metrics.stop(Metrics.Probe.PLACE_ORDER, start);
+        return placed;
+    }
+
+    private boolean place() {
+        if (!STATE.compareAndSet(this, NEW, PLACING)) {
+            return false;
+        }
+        ToppingInventory stock = inventory;
+        boolean placed = false;
+        try {
+            if (stock != null && !stock.reserve(this)) {
+                Metrics.increment(Metrics.Counter.OUT_OF_STOCK_REFUSALS);
+                return false;
+            }
+            placedAt = System.currentTimeMillis();
+            ordersByNumber.put(orderNumber, this);
             storeOrders.add(this);
-        } else {
+            notifyListeners(PLACED);
+            placed = true;
+        } finally {
+            if (!placed) {
+                // Refused or failed part way: undo whatever was done so the order can be placed again
+                ordersByNumber.remove(orderNumber, this);
+                storeOrders.remove(this);
+                if (stock != null) {
+                    stock.release(this);
+                }
+                placedAt = 0;
+                state = NEW;
+            }
+        }
+        state = PLACED;
+        return true;
+    }
+
+    /**
+     * Puts an order that was placed earlier back into the list of store orders,
+     * without notifying listeners. Orders whose number is already taken are skipped.
+     *
+     * @return true if the order was restored, false if it was skipped
+     */
+    boolean restoreOrder() {
+        return restore(false);
+    }
+
+    /**
+     * Puts an order placed elsewhere into the list of store orders like {@link #restoreOrder()},
+     * and tells listeners through {@link OrderListener#onOrderImported(Order)}, so that the
+     * order journal keeps it.
+     *
+     * @return true if the order was imported, false if its number is already taken
+     */
+    boolean importOrder() {
+        return restore(true);
+    }
+
+    private boolean restore(boolean imported) {
+        if (!STATE.compareAndSet(this, NEW, PLACING)) {
+            return false;
+        }
+        if (ordersByNumber.putIfAbsent(orderNumber, this) != null) {
+            state = CANCELED;
+            return false;
+        }
+        restored = true;
+        storeOrders.add(this);
+        if (imported) {
+            notifyListeners(IMPORTED);
+        }
+        state = PLACED;
+        return true;
+    }
+
+    /**
+     * Checks whether the order was put back into the order book by {@link #restoreOrder()} or
+     * {@link #importOrder()}, so listeners were never told it was placed.
+     *
+     * @return true if the order was restored rather than placed
+     */
+    boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * Cancels a placed order, removing it from the static list of all store orders,
+     * and puts its toppings back into the {@link ToppingInventory} they were reserved from.
+     * A canceled order cannot be placed again.
+     *
+     * @return true if the order was removed, false if it was not in the list of store orders
+     */
+    public boolean cancelOrder() {
+        if (!discardOrder()) {
+            return false;
+        }
+        ToppingInventory stock = reservedFrom;
+        if (stock != null) {
+            stock.release(this);
+        }
+        notifyListeners(CANCELED);
+        return true;
+    }
+
+    /**
+     * Records the portions of each topping reserved for this order, indexed by topping ordinal.
+     *
+     * @param from     the inventory they were taken from
+     * @param portions the portions taken
+     */
+    synchronized void setReservation(ToppingInventory from, int[] portions) {
+        reservedFrom = from;
+        reservedPortions = portions;
+    }
+
+    /**
+     * Takes back the record of the portions reserved for this order, so they are released only once.
+     *
+     * @param from the inventory releasing them
+     * @return the portions taken from that inventory, or null if none are still reserved there
+     */
+    synchronized int[] takeReservation(ToppingInventory from) {
+        if (reservedFrom != from) {
+            return null;
+        }
+        int[] portions = reservedPortions;
+        reservedFrom = null;
+        reservedPortions = null;
+        return portions;
+    }
+
+    /**
+     * Tells every listener that this order was placed, canceled, archived or imported. A
+     * listener that throws is counted in {@link Metrics} and skipped, so it cannot stop the other
+     * listeners or leave the order half placed.
+     *
+     * @param event {@link #PLACED}, {@link #CANCELED}, {@link #ARCHIVED} or {@link #IMPORTED}
+     */
+    private void notifyListeners(int event) {
+        for (OrderListener listener : listeners) {
+            try {
+                if (event == PLACED) {
+                    listener.onOrderPlaced(this);
+                } else if (event == CANCELED) {
+                    listener.onOrderCanceled(this);
+                } else if (event == ARCHIVED) {
+                    listener.onOrderArchived(this);
+                } else {
+                    listener.onOrderImported(this);
+                }
+            } catch (RuntimeException e) {
+                Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+            }
+        }
+    }
+
+    /**
+     * Removes a placed order from the list of store orders without notifying listeners,
+     * for replaying cancellations that were recorded earlier.
+     *
+     * @return true if the order was removed, false if it was not in the list of store orders
+     */
+    boolean discardOrder() {
+        if (!STATE.compareAndSet(this, PLACED, CANCELED)) {
+            return false;
+        }
+        ordersByNumber.remove(orderNumber, this);
+        if (closedInQueue.incrementAndGet() > ordersByNumber.size() + 64) {
+            compactStoreOrders();
+        }
+        return true;
+    }
+
+    /**
+     * Takes orders that have been written to an {@link OrderArchive} out of the order book and
+     * tells listeners. Orders that are no longer placed, e.g. canceled after they were written,
+     * are skipped. Archived orders cannot be canceled.
+     *
+     * @param orders the orders written to the archive
+     * @return the orders taken out of the order book
+     */
+    static List<Order> archiveOrders(List<Order> orders) {
+        List<Order> archived = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (STATE.compareAndSet(order, PLACED, ARCHIVED)) {
+                ordersByNumber.remove(order.orderNumber, order);
+                order.notifyListeners(ARCHIVED);
+                archived.add(order);
+            }
+        }
+        if (closedInQueue.addAndGet(archived.size()) > ordersByNumber.size() + 64) {
+            compactStoreOrders();
+        }
+        return archived;
+    }
+
+    /**
+     * Retrieves the time the order was placed.
+     *
+     * @return milliseconds since the epoch, or 0 if the order has not been placed
+     */
+    public long getPlacedAt() {
+        return placedAt;
+    }
+
+    /**
+     * Registers a listener to be told about orders being placed and canceled.
+     *
+     * @param listener the listener to add
+     */
+    public static void addOrderListener(OrderListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addOrderListener(OrderListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public static void removeOrderListener(OrderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the inventory that orders reserve their toppings from when they are placed.
+     *
+     * @param toppingInventory the inventory, or null to place orders without checking stock
+     */
+    public static void setToppingInventory(ToppingInventory toppingInventory) {
+        inventory = toppingInventory;
+    }
+
+    /**
+     * Checks whether the order is currently placed, i.e. placed and not canceled.
+     *
+     * @return true if the order is in the list of store orders
+     */
+    public boolean isPlaced() {
+        return state == PLACED;
+    }
+
+    /**
+     * Checks whether the order has been canceled.
+     *
+     * @return true if the order was placed and then canceled
+     */
+    public boolean isCanceled() {
+        return state == CANCELED;
+    }
+
+    /**
+     * Finds a placed order by its order number.
+     *
+     * @param orderNumber the order number to look up
+     * @return the placed order, or null if no placed order has that number
+     */
+    public static Order findOrder(int orderNumber) {
+        return ordersByNumber.get(orderNumber);
+    }
+
+    /**
+     * Retrieves the number of placed orders.
+     *
+     * @return the number of orders in the list of store orders
+     */
+    public static int getOrderCount() {
+        return ordersByNumber.size();
+    }
+
+    /**
+     * Drops canceled and archived orders from the placement queue. Only one thread compacts at a time;
+     * others carry on without waiting, since canceled orders are already skipped when reading.
+     */
+    private static void compactStoreOrders() {
+        if (!compacting.compareAndSet(false, true)) {
             return;
         }
+        try {
+            int removed = 0;
+            for (Iterator<Order> it = storeOrders.iterator(); it.hasNext(); ) {
+                int state = it.next().state;
+                if (state == CANCELED || state == ARCHIVED) {
+                    it.remove();
+                    removed++;
+                }
+            }
+            closedInQueue.addAndGet(-removed);
+        } finally {
+            compacting.set(false);
+        }
     }
 
     /**
-     * Retrieves a list of all placed orders.
+     * Retrieves a list of all placed orders, in the order they were placed.
+     * The list is a snapshot; orders placed or canceled afterwards do not change it.
+     * It includes orders that are still being placed on another thread.
      *
-     * @return an {@link ArrayList} of all orders
+     * @return a new {@link List} of all orders
      */
-    public static ArrayList<Order>getAllOrders(){
-        return storeOrders;
+    public static List<Order> getAllOrders() {
+        List<Order> orders = new ArrayList<>(ordersByNumber.size());
+        for (Order order : storeOrders) {
+            int state = order.state;
+            if (state != CANCELED && state != ARCHIVED) {
+                orders.add(order);
+            }
+        }
+        return orders;
     }
 
     /**
-     * Clears the list of pizzas in this order, resetting the order's contents.
+     * Clears the list of pizzas in this order, resetting the order's contents and subtotal.
      */
     public void clearOrderDisplay() {
-        pizzas.clear();
+        Arrays.fill(linePizzas, 0, lineCount, null);
+        lineCount = 0;
+        pizzaCount = 0;
+        subtotal = 0;
     }
 
 
@@ -142,15 +851,7 @@ public class Order {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Order #").append(orderNumber).append("\n");
-        for (Pizza pizza : pizzas) {
-            sb.append(pizza.toString()).append("\n");
-        }
-        sb.append(String.format("Subtotal: $%.2f\n", getSubtotal()));
-        sb.append(String.format("Tax: $%.2f\n", getTax()));
-        sb.append(String.format("Total: $%.2f", getTotal()));
-        return sb.toString();
+        return ReceiptRenderer.appendOrder(new StringBuilder(), this).toString();
     }
 }
 
@@ -0,0 +1,456 @@
+package com.example.rupizzeriaapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A read-only, memory-mapped archive of closed orders, stored as columns of primitives.
+ * <p>
+ * Each order is a row of order number, placement time and subtotal; each of its line items is a
+ * row of unit price, pizza kind, size and crust ordinals, topping bitmask and quantity. Every field is one
+ * column stored contiguously in the file, so a month of orders takes a few megabytes instead of
+ * an object graph, and scans such as {@link #getRevenueCents(long, long)} or
+ * {@link #countToppings(long, long)} read straight from the mapped columns without creating any
+ * objects. Orders are sorted by placement time, so time ranges are found by binary search.
+ * </p>
+ * Archives are written once with {@link #write(File, List)} and opened with {@link #open(File)}.
+ * At the end of a day, {@link #archiveOrdersPlacedBefore(File, long)} adds the day's orders to
+ * that day's archive and takes them out of the store order book.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class OrderArchive {
+    private static final int MAGIC = 0x52554132;
+    private static final int HEADER_SIZE = 16;
+
+    private static final PizzaKind[] KINDS = PizzaKind.values();
+    private static final Size[] SIZES = Size.values();
+    private static final Crust[] CRUSTS = Crust.values();
+
+    private final int orderCount;
+    private final int lineCount;
+    private final LongBuffer placedAt;
+    private final LongBuffer subtotals;
+    private final LongBuffer prices;
+    private final IntBuffer orderNumbers;
+    // Index of each order's first line, plus one entry past the last order
+    private final IntBuffer lineStarts;
+    private final IntBuffer quantities;
+    private final ShortBuffer toppingMasks;
+    private final ByteBuffer kinds;
+    private final ByteBuffer sizes;
+    private final ByteBuffer crusts;
+
+    private OrderArchive(MappedByteBuffer in) throws IOException {
+        if (in.capacity() < HEADER_SIZE || in.getInt(0) != MAGIC) {
+            throw new IOException("Not an order archive");
+        }
+        orderCount = in.getInt(4);
+        lineCount = in.getInt(8);
+        if (orderCount < 0 || lineCount < 0 || in.capacity() != fileSize(orderCount, lineCount)) {
+            throw new IOException("Order archive is truncated");
+        }
+        int position = HEADER_SIZE;
+        placedAt = column(in, position, orderCount * 8).asLongBuffer();
+        position += orderCount * 8;
+        subtotals = column(in, position, orderCount * 8).asLongBuffer();
+        position += orderCount * 8;
+        prices = column(in, position, lineCount * 8).asLongBuffer();
+        position += lineCount * 8;
+        orderNumbers = column(in, position, orderCount * 4).asIntBuffer();
+        position += orderCount * 4;
+        lineStarts = column(in, position, (orderCount + 1) * 4).asIntBuffer();
+        position += (orderCount + 1) * 4;
+        quantities = column(in, position, lineCount * 4).asIntBuffer();
+        position += lineCount * 4;
+        toppingMasks = column(in, position, lineCount * 2).asShortBuffer();
+        position += lineCount * 2;
+        kinds = column(in, position, lineCount);
+        position += lineCount;
+        sizes = column(in, position, lineCount);
+        position += lineCount;
+        crusts = column(in, position, lineCount);
+    }
+
+    /**
+     * Writes orders to a new archive file, replacing any file already there. The archive is
+     * written to a temporary file and renamed into place, so a crash never leaves a partial archive.
+     *
+     * @param file   the archive file
+     * @param orders the orders to archive, in any order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(File file, List<Order> orders) throws IOException {
+        List<Order> sorted = new ArrayList<>(orders);
+        Collections.sort(sorted, Comparator.comparingLong(Order::getPlacedAt));
+        int orderCount = sorted.size();
+        int lineCount = 0;
+        for (Order order : sorted) {
+            lineCount += order.getLineCount();
+        }
+        long size = fileSize(orderCount, lineCount);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many orders for one archive: " + orderCount);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(size);
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(0, MAGIC).putInt(4, orderCount).putInt(8, lineCount);
+            int placedAtAt = HEADER_SIZE;
+            int subtotalAt = placedAtAt + orderCount * 8;
+            int priceAt = subtotalAt + orderCount * 8;
+            int orderNumberAt = priceAt + lineCount * 8;
+            int lineStartAt = orderNumberAt + orderCount * 4;
+            int quantityAt = lineStartAt + (orderCount + 1) * 4;
+            int maskAt = quantityAt + lineCount * 4;
+            int kindAt = maskAt + lineCount * 2;
+            int sizeAt = kindAt + lineCount;
+            int crustAt = sizeAt + lineCount;
+            int line = 0;
+            for (int i = 0; i < orderCount; i++) {
+                Order order = sorted.get(i);
+                out.putLong(placedAtAt + i * 8, order.getPlacedAt());
+                out.putLong(subtotalAt + i * 8, order.getSubtotalCents());
+                out.putInt(orderNumberAt + i * 4, order.getOrderNumber());
+                out.putInt(lineStartAt + i * 4, line);
+                for (int l = 0, lines = order.getLineCount(); l < lines; l++, line++) {
+                    Pizza pizza = order.getLinePizza(l);
+                    out.putLong(priceAt + line * 8, order.getLinePriceCents(l));
+                    out.putInt(quantityAt + line * 4, order.getLineQuantity(l));
+                    out.putShort(maskAt + line * 2, (short) pizza.getToppingMask());
+                    out.put(kindAt + line, (byte) pizza.getKind().ordinal());
+                    out.put(sizeAt + line, pizza.getSize() == null ? -1 : (byte) pizza.getSize().ordinal());
+                    out.put(crustAt + line, pizza.getCrust() == null ? -1 : (byte) pizza.getCrust().ordinal());
+                }
+            }
+            out.putInt(lineStartAt + orderCount * 4, line);
+            out.force();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Adds the store orders placed before a time to the archives of the days they were placed on,
+     * then takes them out of the store order book, so the book only holds the orders still open.
+     * Each day's archive is named by {@link #fileFor(File, long)}; orders already in it are kept,
+     * and orders it already holds are not added twice. Orders canceled while an archive was being
+     * written are left out of it. Nothing is written if no order is old enough, and no order is
+     * taken out if its day's archive cannot be written.
+     *
+     * @param directory the directory holding the archives
+     * @param cutoff    the time before which orders are archived, in milliseconds since the epoch
+     * @return the number of orders archived
+     * @throws IOException if an archive cannot be read or written
+     */
+    public static int archiveOrdersPlacedBefore(File directory, long cutoff) throws IOException {
+        Map<Long, List<Order>> closedByDay = new TreeMap<>();
+        Calendar day = Calendar.getInstance();
+        for (Order order : Order.getAllOrders()) {
+            if (order.isPlaced() && order.getPlacedAt() < cutoff) {
+                day.setTimeInMillis(order.getPlacedAt());
+                startOfDay(day);
+                List<Order> closed = closedByDay.get(day.getTimeInMillis());
+                if (closed == null) {
+                    closed = new ArrayList<>();
+                    closedByDay.put(day.getTimeInMillis(), closed);
+                }
+                closed.add(order);
+            }
+        }
+        int archivedCount = 0;
+        for (Map.Entry<Long, List<Order>> entry : closedByDay.entrySet()) {
+            File file = fileFor(directory, entry.getKey());
+            List<Order> kept = new ArrayList<>();
+            OrderArchive existing = null;
+            if (file.exists()) {
+                existing = open(file);
+                for (int i = 0; i < existing.size(); i++) {
+                    kept.add(existing.getOrder(i));
+                }
+            }
+            List<Order> closed = entry.getValue();
+            write(file, merge(existing, kept, closed));
+            List<Order> archived = Order.archiveOrders(closed);
+            if (archived.size() != closed.size()) {
+                write(file, merge(existing, kept, archived));
+            }
+            archivedCount += archived.size();
+        }
+        return archivedCount;
+    }
+
+    /**
+     * Adds orders to the orders already kept from an archive, skipping those it already holds.
+     */
+    private static List<Order> merge(OrderArchive existing, List<Order> kept, List<Order> orders) {
+        List<Order> merged = new ArrayList<>(kept);
+        for (Order order : orders) {
+            if (existing == null || existing.indexOf(order.getOrderNumber()) < 0) {
+                merged.add(order);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Names the archive of the orders placed on a day, e.g. {@code orders-20240131.archive}.
+     *
+     * @param directory the directory holding the archives
+     * @param time      any time on the day, in milliseconds since the epoch
+     * @return the archive file
+     */
+    public static File fileFor(File directory, long time) {
+        Calendar day = Calendar.getInstance();
+        day.setTimeInMillis(time);
+        return new File(directory, String.format(Locale.US, "orders-%1$tY%1$tm%1$td.archive", day));
+    }
+
+    /**
+     * Moves a calendar back to midnight at the start of its day.
+     *
+     * @param day the calendar
+     */
+    static void startOfDay(Calendar day) {
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+    }
+
+    /**
+     * Maps an archive file into memory.
+     *
+     * @param file the archive file
+     * @return the archive
+     * @throws IOException if the file cannot be read or is not a complete archive
+     */
+    public static OrderArchive open(File file) throws IOException {
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            // The mapping stays valid after the channel is closed
+            return new OrderArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Gets the number of orders in the archive.
+     *
+     * @return the order count
+     */
+    public int size() {
+        return orderCount;
+    }
+
+    /**
+     * Gets the number of line items in the archive.
+     *
+     * @return the line count
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the order number of the order at a position.
+     *
+     * @param position the position, in order of placement time
+     * @return the order number
+     */
+    public int getOrderNumber(int position) {
+        return orderNumbers.get(position);
+    }
+
+    /**
+     * Gets when the order at a position was placed.
+     *
+     * @param position the position, in order of placement time
+     * @return milliseconds since the epoch
+     */
+    public long getPlacedAt(int position) {
+        return placedAt.get(position);
+    }
+
+    /**
+     * Gets the subtotal of the order at a position.
+     *
+     * @param position the position, in order of placement time
+     * @return the subtotal in cents
+     */
+    public long getSubtotalCents(int position) {
+        return subtotals.get(position);
+    }
+
+    /**
+     * Finds the position of an order by its order number, by scanning the order number column.
+     *
+     * @param orderNumber the order number
+     * @return the position, or -1 if the order is not in the archive
+     */
+    public int indexOf(int orderNumber) {
+        for (int i = 0; i < orderCount; i++) {
+            if (orderNumbers.get(i) == orderNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds the order at a position, e.g. to show its receipt. The order is detached, so it
+     * can never be placed and does not change the numbers given to new orders, and its line
+     * items keep the prices they were archived with.
+     *
+     * @param position the position, in order of placement time
+     * @return a new {@link Order}
+     */
+    public Order getOrder(int position) {
+        Order order = Order.detached(orderNumbers.get(position), placedAt.get(position));
+        for (int line = lineStarts.get(position), end = lineStarts.get(position + 1); line < end; line++) {
+            Pizza pizza = KINDS[kinds.get(line)].newPizza();
+            byte size = sizes.get(line);
+            byte crust = crusts.get(line);
+            pizza.setSize(size < 0 ? null : SIZES[size]);
+            pizza.setCrust(crust < 0 ? null : CRUSTS[crust]);
+            pizza.setToppingMask(toppingMasks.get(line) & 0xFFFF);
+            order.addPizza(pizza.freeze(), quantities.get(line), prices.get(line));
+        }
+        return order;
+    }
+
+    /**
+     * Finds the first order placed at or after a time.
+     *
+     * @param time milliseconds since the epoch
+     * @return the position, or {@link #size()} if every order was placed earlier
+     */
+    public int firstPlacedAtOrAfter(long time) {
+        int low = 0;
+        int high = orderCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (placedAt.get(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts the orders placed in a time range.
+     *
+     * @param from the start of the range, inclusive, in milliseconds since the epoch
+     * @param to   the end of the range, exclusive
+     * @return the order count
+     */
+    public int getOrderCount(long from, long to) {
+        return Math.max(0, firstPlacedAtOrAfter(to) - firstPlacedAtOrAfter(from));
+    }
+
+    /**
+     * Adds up the subtotals of the orders placed in a time range.
+     *
+     * @param from the start of the range, inclusive, in milliseconds since the epoch
+     * @param to   the end of the range, exclusive
+     * @return the revenue before tax, in cents
+     */
+    public long getRevenueCents(long from, long to) {
+        long revenue = 0;
+        for (int i = firstPlacedAtOrAfter(from), end = firstPlacedAtOrAfter(to); i < end; i++) {
+            revenue += subtotals.get(i);
+        }
+        return revenue;
+    }
+
+    /**
+     * Counts the pizzas of a kind and size sold in a time range.
+     *
+     * @param kind the kind of pizza
+     * @param size the size of pizza
+     * @param from the start of the range, inclusive, in milliseconds since the epoch
+     * @param to   the end of the range, exclusive
+     * @return the pizza count
+     */
+    public long countPizzas(PizzaKind kind, Size size, long from, long to) {
+        byte wantedKind = (byte) kind.ordinal();
+        byte wantedSize = (byte) size.ordinal();
+        long count = 0;
+        for (int line = firstLine(from), end = firstLine(to); line < end; line++) {
+            if (kinds.get(line) == wantedKind && sizes.get(line) == wantedSize) {
+                count += quantities.get(line);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the pizzas of each crust sold in a time range.
+     *
+     * @param from the start of the range, inclusive, in milliseconds since the epoch
+     * @param to   the end of the range, exclusive
+     * @return the pizza counts, indexed by {@link Crust} ordinal
+     */
+    public long[] countCrusts(long from, long to) {
+        long[] counts = new long[CRUSTS.length];
+        for (int line = firstLine(from), end = firstLine(to); line < end; line++) {
+            byte crust = crusts.get(line);
+            if (crust >= 0) {
+                counts[crust] += quantities.get(line);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the pizzas sold with each topping in a time range.
+     *
+     * @param from the start of the range, inclusive, in milliseconds since the epoch
+     * @param to   the end of the range, exclusive
+     * @return the pizza counts, indexed by {@link Topping} ordinal
+     */
+    public long[] countToppings(long from, long to) {
+        long[] counts = new long[Topping.values().length];
+        for (int line = firstLine(from), end = firstLine(to); line < end; line++) {
+            int quantity = quantities.get(line);
+            for (int bits = toppingMasks.get(line) & 0xFFFF; bits != 0; bits &= bits - 1) {
+                counts[Integer.numberOfTrailingZeros(bits)] += quantity;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Finds the first line of the first order placed at or after a time.
+     */
+    private int firstLine(long time) {
+        return lineStarts.get(firstPlacedAtOrAfter(time));
+    }
+
+    private static long fileSize(int orderCount, int lineCount) {
+        return HEADER_SIZE + orderCount * (8L + 8 + 4 + 4) + 4 + lineCount * (8L + 4 + 2 + 1 + 1 + 1);
+    }
+
+    private static ByteBuffer column(ByteBuffer in, int position, int length) {
+        ByteBuffer column = in.duplicate();
+        column.position(position).limit(position + length);
+        return column.slice();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.rupizzeriaapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Exports the order book for end-of-day reconciliation, and imports it back.
+ * <p>
+ * The binary export is a header followed by one fixed-size record per line item, written into a
+ * {@link MappedByteBuffer} of the exact file size. Each record repeats its order's number and
+ * placement time and holds the unit price the line was charged, so the records of an order are
+ * consecutive, any record can be read on its own and imported orders keep their prices. An order
+ * without pizzas is written as a single record with no pizza.
+ * {@link #importBinary(File)} reads the records straight out of the mapped file.
+ * </p>
+ * The CSV export has one row per line item and is encoded into a reused buffer that is written
+ * out whenever it fills, so the file is never held in memory as one string. Both exports are
+ * written to a temporary file and renamed into place, so a crash never leaves a partial export.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class OrderExport {
+    /**
+     * The header row of the CSV export.
+     */
+    public static final String CSV_HEADER =
+            "order_number,placed_at,pizza,size,crust,toppings,quantity,order_subtotal,order_total\n";
+
+    private static final int MAGIC = 0x52554532;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 32;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Longest CSV row: numbers, names and up to 7 toppings, well under this
+    private static final int MAX_ROW_LENGTH = 512;
+
+    private static final PizzaKind[] KINDS = PizzaKind.values();
+    private static final Size[] SIZES = Size.values();
+    private static final Crust[] CRUSTS = Crust.values();
+    private static final int ALL_TOPPINGS = (1 << Topping.values().length) - 1;
+
+    private OrderExport() {
+    }
+
+    /**
+     * Writes orders to a binary export file, replacing any file already there.
+     *
+     * @param file   the export file
+     * @param orders the orders to export, e.g. {@link Order#getAllOrders()}
+     * @return the number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public static int exportBinary(File file, List<Order> orders) throws IOException {
+        long records = 0;
+        for (Order order : orders) {
+            records += Math.max(1, order.getLineCount());
+        }
+        long size = HEADER_SIZE + records * RECORD_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many orders for one export: " + orders.size());
+        }
+        File temp = tempFileFor(file);
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(size);
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt((int) records);
+            for (Order order : orders) {
+                int lines = order.getLineCount();
+                if (lines == 0) {
+                    putRecord(out, order, null, 0, 0);
+                }
+                for (int line = 0; line < lines; line++) {
+                    putRecord(out, order, order.getLinePizza(line), order.getLineQuantity(line),
+                            order.getLinePriceCents(line));
+                }
+            }
+            out.force();
+        }
+        replace(file, temp);
+        return (int) records;
+    }
+
+    /**
+     * Reads a binary export back into the store order book. Every record is checked before any
+     * order is added, so a damaged file adds nothing. Orders whose number is already in the book
+     * are skipped. Imported orders are passed to {@link Order.OrderListener#onOrderImported(Order)},
+     * so they are journaled but not baked again.
+     *
+     * @param file the export file
+     * @return the number of orders added to the book
+     * @throws IOException if the file cannot be read, is not a complete export or has an invalid record
+     */
+    public static int importBinary(File file) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.capacity() < HEADER_SIZE || in.getInt(0) != MAGIC) {
+            throw new IOException("Not an order export");
+        }
+        int records = in.getInt(4);
+        if (records < 0 || in.capacity() != HEADER_SIZE + (long) records * RECORD_SIZE) {
+            throw new IOException("Order export is truncated");
+        }
+        validate(in, records);
+        int imported = 0;
+        Order order = null;
+        for (int i = 0; i < records; i++) {
+            int at = HEADER_SIZE + i * RECORD_SIZE;
+            int orderNumber = in.getInt(at);
+            if (order == null || order.getOrderNumber() != orderNumber) {
+                imported += restore(order);
+                order = new Order(orderNumber, in.getLong(at + 4));
+            }
+            byte kind = in.get(at + 26);
+            if (kind < 0) {
+                continue;
+            }
+            Pizza pizza = KINDS[kind].newPizza();
+            byte size = in.get(at + 27);
+            byte crust = in.get(at + 28);
+            pizza.setSize(size < 0 ? null : SIZES[size]);
+            pizza.setCrust(crust < 0 ? null : CRUSTS[crust]);
+            pizza.setToppingMask(in.getShort(at + 24) & 0xFFFF);
+            order.addPizza(pizza.freeze(), in.getInt(at + 20), in.getLong(at + 12));
+        }
+        return imported + restore(order);
+    }
+
+    /**
+     * Writes orders to a CSV file, one row per line item, replacing any file already there.
+     *
+     * @param file   the export file
+     * @param orders the orders to export, e.g. {@link Order#getAllOrders()}
+     * @return the number of rows written, not counting the header
+     * @throws IOException if the file cannot be written
+     */
+    public static int exportCsv(File file, List<Order> orders) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        StringBuilder row = new StringBuilder(MAX_ROW_LENGTH);
+        int rows = 0;
+        File temp = tempFileFor(file);
+        try (FileChannel out = new RandomAccessFile(temp, "rw").getChannel()) {
+            out.truncate(0);
+            putAscii(buffer, CSV_HEADER);
+            for (Order order : orders) {
+                int lines = order.getLineCount();
+                for (int line = 0; line < Math.max(1, lines); line++) {
+                    row.setLength(0);
+                    appendCsvRow(row, order, lines == 0 ? null : order.getLinePizza(line),
+                            lines == 0 ? 0 : order.getLineQuantity(line));
+                    if (buffer.remaining() < row.length()) {
+                        drain(buffer, out);
+                    }
+                    putAscii(buffer, row);
+                    rows++;
+                }
+            }
+            drain(buffer, out);
+            out.force(false);
+        }
+        replace(file, temp);
+        return rows;
+    }
+
+    /**
+     * Appends one CSV row for a line item, e.g.
+     * {@code 12,1700000000000,Deluxe,LARGE,ChicagoDeluxe,sausage;pepperoni,2,41.98,44.76}.
+     * The pizza columns are empty for an order without pizzas.
+     */
+    private static void appendCsvRow(StringBuilder sb, Order order, Pizza pizza, int quantity) {
+        sb.append(order.getOrderNumber()).append(',').append(order.getPlacedAt()).append(',');
+        if (pizza != null) {
+            sb.append(pizza.getKind().getReceiptName()).append(',');
+            if (pizza.getSize() != null) {
+                sb.append(pizza.getSize().name());
+            }
+            sb.append(',');
+            if (pizza.getCrust() != null) {
+                sb.append(pizza.getCrust().name());
+            }
+            sb.append(',');
+            int mask = pizza.getToppingMask();
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                if (bits != mask) {
+                    sb.append(';');
+                }
+                sb.append(Topping.byOrdinal(Integer.numberOfTrailingZeros(bits)).getReceiptName());
+            }
+            sb.append(',').append(quantity);
+        } else {
+            sb.append(",,,,0");
+        }
+        Money.appendTo(sb.append(','), order.getSubtotalCents());
+        Money.appendTo(sb.append(','), order.getTotalCents()).append('\n');
+    }
+
+    private static void putRecord(ByteBuffer out, Order order, Pizza pizza, int quantity, long priceCents) {
+        out.putInt(order.getOrderNumber())
+                .putLong(order.getPlacedAt())
+                .putLong(priceCents)
+                .putInt(quantity)
+                .putShort(pizza == null ? 0 : (short) pizza.getToppingMask())
+                .put(pizza == null ? -1 : (byte) pizza.getKind().ordinal())
+                .put(pizza == null || pizza.getSize() == null ? -1 : (byte) pizza.getSize().ordinal())
+                .put(pizza == null || pizza.getCrust() == null ? -1 : (byte) pizza.getCrust().ordinal())
+                .put((byte) 0).putShort((short) 0);
+    }
+
+    /**
+     * Checks that every record of an export can be imported: its pizza kind, size and crust are
+     * known, its quantity is positive, its price is not negative and its toppings are a valid topping mask.
+     *
+     * @throws IOException naming the first invalid record
+     */
+    private static void validate(ByteBuffer in, int records) throws IOException {
+        for (int i = 0; i < records; i++) {
+            int at = HEADER_SIZE + i * RECORD_SIZE;
+            byte kind = in.get(at + 26);
+            if (kind == -1) {
+                continue;
+            }
+            int mask = in.getShort(at + 24) & 0xFFFF;
+            if (kind < 0 || kind >= KINDS.length
+                    || in.get(at + 27) < -1 || in.get(at + 27) >= SIZES.length
+                    || in.get(at + 28) < -1 || in.get(at + 28) >= CRUSTS.length
+                    || in.getInt(at + 20) <= 0
+                    || in.getLong(at + 12) < 0
+                    || (mask & ~ALL_TOPPINGS) != 0 || Integer.bitCount(mask) > Pizza.MAX_TOPPINGS) {
+                throw new IOException("Invalid record " + i + " in order export");
+            }
+        }
+    }
+
+    /**
+     * Puts an imported order into the store order book.
+     *
+     * @return 1 if the order was added, 0 if there was none or its number was taken
+     */
+    private static int restore(Order order) {
+        if (order == null) {
+            return 0;
+        }
+        return order.importOrder() ? 1 : 0;
+    }
+
+    private static File tempFileFor(File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    /**
+     * Renames a finished temporary file over the export file.
+     */
+    private static void replace(File file, File temp) throws IOException {
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Encodes text into the buffer one byte per character; every character written is ASCII.
+     */
+    private static void putAscii(ByteBuffer buffer, CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
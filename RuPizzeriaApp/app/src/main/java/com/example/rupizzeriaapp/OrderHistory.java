@@ -0,0 +1,165 @@
+package com.example.rupizzeriaapp;
+
+import java.util.List;
+
+/**
+ * A snapshot of the store orders for the order history screen.
+ * <p>
+ * Taking the snapshot only copies the order references. The compact summary of each order
+ * (number, pizza count and total) is read into primitive arrays a page at a time, the first time
+ * a row of that page is asked for, so a history of tens of thousands of orders opens without
+ * touching most of them. Nothing is rendered until a row is shown.
+ * </p>
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class OrderHistory {
+    /**
+     * The number of orders whose summaries are read together.
+     */
+    public static final int PAGE_SIZE = 128;
+
+    private final Order[] orders;
+    private final int[] orderNumbers;
+    private final int[] pizzaCounts;
+    private final long[] totals;
+    private final boolean[] pageLoaded;
+    private int size;
+
+    /**
+     * Creates a history over a list of orders.
+     *
+     * @param orders the orders, in the order they are listed
+     */
+    public OrderHistory(List<Order> orders) {
+        this.orders = orders.toArray(new Order[0]);
+        size = this.orders.length;
+        orderNumbers = new int[size];
+        pizzaCounts = new int[size];
+        totals = new long[size];
+        pageLoaded = new boolean[(size + PAGE_SIZE - 1) / PAGE_SIZE];
+    }
+
+    /**
+     * Takes a snapshot of the store orders that have not been canceled.
+     *
+     * @return the history, oldest order first
+     */
+    public static OrderHistory snapshot() {
+        return new OrderHistory(Order.getAllOrders());
+    }
+
+    /**
+     * Gets the number of orders in the history.
+     *
+     * @return the order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves an order, e.g. to show its details once it is selected.
+     *
+     * @param position the position in the history
+     * @return the order
+     */
+    public Order getOrder(int position) {
+        checkPosition(position);
+        return orders[position];
+    }
+
+    /**
+     * Gets the order number at a position.
+     *
+     * @param position the position in the history
+     * @return the order number
+     */
+    public int getOrderNumber(int position) {
+        loadPage(position);
+        return orderNumbers[position];
+    }
+
+    /**
+     * Gets the number of pizzas in the order at a position.
+     *
+     * @param position the position in the history
+     * @return the pizza count
+     */
+    public int getPizzaCount(int position) {
+        loadPage(position);
+        return pizzaCounts[position];
+    }
+
+    /**
+     * Gets the total, with tax, of the order at a position.
+     *
+     * @param position the position in the history
+     * @return the total in cents
+     */
+    public long getTotalCents(int position) {
+        loadPage(position);
+        return totals[position];
+    }
+
+    /**
+     * Appends the one-line summary of an order, e.g. {@code Order #12 - 3 pizzas - $45.67}.
+     *
+     * @param sb       the builder to append to
+     * @param position the position in the history
+     * @return the same builder
+     */
+    public StringBuilder appendSummary(StringBuilder sb, int position) {
+        loadPage(position);
+        int pizzaCount = pizzaCounts[position];
+        sb.append("Order #").append(orderNumbers[position])
+                .append(" - ").append(pizzaCount).append(pizzaCount == 1 ? " pizza" : " pizzas")
+                .append(" - $");
+        return Money.appendTo(sb, totals[position]);
+    }
+
+    /**
+     * Removes the order at a position from the history, e.g. after it has been canceled.
+     *
+     * @param position the position in the history
+     */
+    public void remove(int position) {
+        checkPosition(position);
+        int moved = size - position - 1;
+        System.arraycopy(orders, position + 1, orders, position, moved);
+        System.arraycopy(orderNumbers, position + 1, orderNumbers, position, moved);
+        System.arraycopy(pizzaCounts, position + 1, pizzaCounts, position, moved);
+        System.arraycopy(totals, position + 1, totals, position, moved);
+        // The last row of each later page now comes from the next page, so a page stays
+        // loaded only if the page after it was loaded too
+        int lastPage = pageLoaded.length - 1;
+        for (int page = position / PAGE_SIZE; page < lastPage; page++) {
+            pageLoaded[page] &= pageLoaded[page + 1];
+        }
+        orders[--size] = null;
+    }
+
+    /**
+     * Reads the summaries of the page holding a position, if not read yet.
+     */
+    private void loadPage(int position) {
+        checkPosition(position);
+        int page = position / PAGE_SIZE;
+        if (pageLoaded[page]) {
+            return;
+        }
+        int end = Math.min(size, (page + 1) * PAGE_SIZE);
+        for (int i = page * PAGE_SIZE; i < end; i++) {
+            Order order = orders[i];
+            orderNumbers[i] = order.getOrderNumber();
+            pizzaCounts[i] = order.getPizzaCount();
+            totals[i] = order.getTotalCents();
+        }
+        pageLoaded[page] = true;
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.rupizzeriaapp;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * Adapter for displaying the store order history in a RecyclerView.
+ * Rows are rendered from the compact summaries of an {@link OrderHistory} only when they are
+ * bound, and a single order can be selected.
+ */
+public class OrderHistoryAdapter extends RecyclerView.Adapter<OrderHistoryAdapter.OrderViewHolder> {
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    private OrderHistory history;
+    private OnOrderSelectedListener listener;
+    private int selectedPosition = RecyclerView.NO_POSITION;
+    private final StringBuilder summary = new StringBuilder();
+
+    /**
+     * Listener interface for reacting to the selected order changing.
+     */
+    public interface OnOrderSelectedListener {
+        /**
+         * Called when an order is selected.
+         *
+         * @param position The position of the order in the history.
+         */
+        void onOrderSelected(int position);
+    }
+
+    /**
+     * Constructs a new {@code OrderHistoryAdapter}.
+     *
+     * @param history  The order history to display.
+     * @param listener Listener to handle order selection events.
+     */
+    public OrderHistoryAdapter(OrderHistory history, OnOrderSelectedListener listener) {
+        this.history = history;
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public OrderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.order_history_item, parent, false);
+        return new OrderViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
+        summary.setLength(0);
+        holder.orderSummary.setText(history.appendSummary(summary, position).toString());
+        holder.itemView.setActivated(position == selectedPosition);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull OrderViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.itemView.setActivated(position == selectedPosition);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return history.size();
+    }
+
+    /**
+     * Gets the position of the selected order.
+     *
+     * @return The selected position, or {@link RecyclerView#NO_POSITION} if none is selected.
+     */
+    public int getSelectedPosition() {
+        return selectedPosition;
+    }
+
+    /**
+     * Selects an order, rebinding only the rows whose selection changed.
+     *
+     * @param position The position to select, or {@link RecyclerView#NO_POSITION} to clear the selection.
+     */
+    public void setSelectedPosition(int position) {
+        int previous = selectedPosition;
+        selectedPosition = position;
+        if (previous != RecyclerView.NO_POSITION) {
+            notifyItemChanged(previous, PAYLOAD_SELECTION);
+        }
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
+        }
+    }
+
+    /**
+     * Removes an order from the history and the list, clearing the selection.
+     *
+     * @param position The position of the order to remove.
+     */
+    public void removeOrder(int position) {
+        history.remove(position);
+        if (selectedPosition == position) {
+            selectedPosition = RecyclerView.NO_POSITION;
+        } else if (selectedPosition > position) {
+            selectedPosition--;
+        }
+        notifyItemRemoved(position);
+    }
+
+    /**
+     * ViewHolder class for displaying the summary of one order.
+     */
+    class OrderViewHolder extends RecyclerView.ViewHolder {
+        private TextView orderSummary;
+
+        /**
+         * Constructs an {@code OrderViewHolder}.
+         *
+         * @param itemView The view representing a single order.
+         */
+        public OrderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            orderSummary = itemView.findViewById(R.id.order_summary);
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && position != selectedPosition) {
+                    setSelectedPosition(position);
+                    listener.onOrderSelected(position);
+                }
+            });
+        }
+    }
+}
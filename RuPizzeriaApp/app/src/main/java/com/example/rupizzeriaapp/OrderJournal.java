@@ -0,0 +1,436 @@
+package com.example.rupizzeriaapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only binary journal of placed and canceled orders.
+ * <p>
+ * Every order placed or canceled through {@link Order} is queued for a single background writer,
+ * which encodes whole batches into one buffer and makes them durable with a single
+ * {@link FileChannel#force(boolean)} call (group commit). Callers never wait for the disk.
+ * On startup the snapshot and then the journal are replayed to rebuild the store order book.
+ * Once the journal holds many more records than there are live orders, the writer replaces it
+ * with a snapshot of the live orders, so replay time stays proportional to the order book.
+ * </p>
+ * Each record is {@code [int length][body][int CRC32 of body]}. A torn or corrupt record at the
+ * end of the journal, left behind by a crash, ends the replay and is cut off. A placement record
+ * holds one entry per line item with its quantity and the unit price it was charged, so replayed
+ * orders keep their prices after the menu changes.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class OrderJournal implements Order.OrderListener {
+    private static final String JOURNAL_FILE = "orders.journal";
+    private static final String SNAPSHOT_FILE = "orders.snapshot";
+    private static final int MAGIC = 0x52555033;
+    private static final int HEADER_SIZE = 4;
+    private static final byte PLACED = 1;
+    private static final byte CANCELED = 2;
+    // Queued by close() to stop the writer once everything before it is written
+    private static final byte STOP = 3;
+    private static final int PLACED_BODY_SIZE = 1 + 4 + 8 + 4;
+    private static final int LINE_SIZE = 1 + 1 + 1 + 2 + 4 + 8;
+    private static final int CANCELED_BODY_SIZE = 1 + 4;
+    private static final int RECORD_OVERHEAD = 4 + 4;
+    private static final int MAX_BATCH = 1024;
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final PizzaKind[] KINDS = PizzaKind.values();
+    private static final Size[] SIZES = Size.values();
+    private static final Crust[] CRUSTS = Crust.values();
+
+    private static OrderJournal instance;
+
+    private final File journalFile;
+    private final File snapshotFile;
+    private final FileChannel channel;
+    private final LinkedBlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object durableLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long durable;
+    private long recordsInJournal;
+    private Thread writer;
+    private volatile IOException failure;
+
+    /**
+     * A placement or cancellation waiting to be written.
+     */
+    private static final class Entry {
+        final byte type;
+        final Order order;
+
+        Entry(byte type, Order order) {
+            this.type = type;
+            this.order = order;
+        }
+    }
+
+    private OrderJournal(File directory) throws IOException {
+        journalFile = new File(directory, JOURNAL_FILE);
+        snapshotFile = new File(directory, SNAPSHOT_FILE);
+        channel = new RandomAccessFile(journalFile, "rw").getChannel();
+    }
+
+    /**
+     * Replays the journal in a directory into the store order book, then starts journaling every
+     * order placed or canceled from then on. Only the first call has any effect.
+     *
+     * @param directory the directory holding the journal, e.g. {@code Context.getFilesDir()}
+     * @return the journal
+     * @throws IOException if the journal cannot be read or created
+     */
+    public static synchronized OrderJournal open(File directory) throws IOException {
+        if (instance == null) {
+            instance = start(directory);
+        }
+        return instance;
+    }
+
+    /**
+     * Replays the journal in a directory and starts a journal writing to it, whether or not
+     * another journal is open.
+     *
+     * @param directory the directory holding the journal
+     * @return the journal
+     * @throws IOException if the journal cannot be read or created
+     */
+    static OrderJournal start(File directory) throws IOException {
+        OrderJournal journal = new OrderJournal(directory);
+        try {
+            journal.replay();
+        } catch (IOException | RuntimeException e) {
+            journal.channel.close();
+            throw e;
+        }
+        journal.writer = new Thread(journal::writeLoop, "order-journal");
+        journal.writer.setDaemon(true);
+        journal.writer.start();
+        Order.addOrderListener(journal);
+        return journal;
+    }
+
+    @Override
+    public void onOrderPlaced(Order order) {
+        enqueue(PLACED, order);
+    }
+
+    @Override
+    public void onOrderCanceled(Order order) {
+        enqueue(CANCELED, order);
+    }
+
+    @Override
+    public void onOrderImported(Order order) {
+        enqueue(PLACED, order);
+    }
+
+    /**
+     * Archived orders are journaled as canceled, so replay leaves them out of the order book.
+     */
+    @Override
+    public void onOrderArchived(Order order) {
+        enqueue(CANCELED, order);
+    }
+
+    private void enqueue(byte type, Order order) {
+        if (failure != null) {
+            return;
+        }
+        enqueued.incrementAndGet();
+        pending.add(new Entry(type, order));
+    }
+
+    /**
+     * Gets the error that stopped the journal. Once the journal has failed, orders placed or
+     * canceled are no longer saved.
+     *
+     * @return the error, or null if the journal is working
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Stops journaling: writes everything already recorded, then closes the journal.
+     *
+     * @throws IOException if the journal could not be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the writer
+     */
+    public void close() throws IOException, InterruptedException {
+        Order.removeOrderListener(this);
+        pending.add(new Entry(STOP, null));
+        writer.join();
+        channel.close();
+        synchronized (OrderJournal.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Waits until every placement and cancellation recorded so far is on disk.
+     *
+     * @throws IOException if the journal could not be written
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void flush() throws IOException, InterruptedException {
+        long target = enqueued.get();
+        synchronized (durableLock) {
+            while (durable < target && failure == null) {
+                durableLock.wait();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Rebuilds the store order book from the snapshot followed by the journal.
+     */
+    private void replay() throws IOException {
+        if (snapshotFile.exists()) {
+            try (FileChannel snapshot = new RandomAccessFile(snapshotFile, "r").getChannel()) {
+                replay(snapshot);
+            }
+        }
+        recordsInJournal = 0;
+        long end = replay(channel);
+        if (end < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+            header.flip();
+            writeFully(channel, header, 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+        } else if (end < channel.size()) {
+            channel.truncate(end);
+        }
+        channel.position(end);
+    }
+
+    /**
+     * Replays the records in a file.
+     *
+     * @return the position just after the last intact record, or 0 if the file has no valid header
+     */
+    private long replay(FileChannel file) throws IOException {
+        long size = file.size();
+        if (size < HEADER_SIZE) {
+            return 0;
+        }
+        MappedByteBuffer in = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int magic = in.getInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not an order journal");
+        }
+        while (in.remaining() >= RECORD_OVERHEAD) {
+            int start = in.position();
+            int length = in.getInt();
+            if (length <= 0 || length > in.remaining() - 4) {
+                return start;
+            }
+            crc.reset();
+            ByteBuffer body = in.slice();
+            body.limit(length);
+            crc.update(body);
+            in.position(start + 4 + length);
+            if ((int) crc.getValue() != in.getInt()) {
+                return start;
+            }
+            in.position(start + 4);
+            apply(in);
+            in.position(start + RECORD_OVERHEAD + length);
+            recordsInJournal++;
+        }
+        return in.position();
+    }
+
+    /**
+     * Applies one record body to the store order book. Replay is idempotent, since a record may
+     * appear in both the snapshot and the journal after an interrupted compaction.
+     */
+    private static void apply(ByteBuffer in) {
+        byte type = in.get();
+        int orderNumber = in.getInt();
+        if (type == CANCELED) {
+            Order order = Order.findOrder(orderNumber);
+            if (order != null) {
+                order.discardOrder();
+            }
+            return;
+        }
+        long placedAt = in.getLong();
+        int lineCount = in.getInt();
+        if (Order.findOrder(orderNumber) != null) {
+            return;
+        }
+        Order order = new Order(orderNumber, placedAt);
+        for (int i = 0; i < lineCount; i++) {
+            Pizza pizza = KINDS[in.get()].newPizza();
+            byte size = in.get();
+            byte crust = in.get();
+            pizza.setSize(size < 0 ? null : SIZES[size]);
+            pizza.setCrust(crust < 0 ? null : CRUSTS[crust]);
+            pizza.setToppingMask(in.getShort());
+            int quantity = in.getInt();
+            order.addPizza(pizza.freeze(), quantity, in.getLong());
+        }
+        order.restoreOrder();
+    }
+
+    /**
+     * Runs on the writer thread: drains pending entries in batches and commits each batch
+     * with a single write and force. Any error stops the journal for good, see {@link #fail(Exception)}.
+     */
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(pending.take());
+                pending.drainTo(batch, MAX_BATCH - 1);
+                boolean stop = false;
+                int records = 0;
+                for (Entry entry : batch) {
+                    if (entry.type == STOP) {
+                        stop = true;
+                    } else {
+                        encode(entry.type, entry.order);
+                        records++;
+                    }
+                }
+                drainBuffer();
+                channel.force(false);
+                recordsInJournal += records;
+                synchronized (durableLock) {
+                    durable += records;
+                    durableLock.notifyAll();
+                }
+                batch.clear();
+                if (recordsInJournal > Math.max(MIN_RECORDS_BEFORE_COMPACTION, 2L * Order.getOrderCount())) {
+                    compact();
+                }
+                if (stop) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the journal after an error: stops listening for orders, drops the entries waiting to
+     * be written and wakes up {@link #flush()} callers, who get the error.
+     */
+    private void fail(Exception e) {
+        Order.removeOrderListener(this);
+        synchronized (durableLock) {
+            failure = e instanceof IOException ? (IOException) e : new IOException("Order journal failed", e);
+            durableLock.notifyAll();
+        }
+        pending.clear();
+    }
+
+    /**
+     * Writes a snapshot of the live orders and empties the journal. The snapshot is written to a
+     * temporary file and renamed into place, so a crash leaves either the old or the new snapshot.
+     */
+    private void compact() throws IOException {
+        File temp = new File(snapshotFile.getPath() + ".tmp");
+        FileChannel journal = null;
+        try (FileChannel snapshot = new RandomAccessFile(temp, "rw").getChannel()) {
+            snapshot.truncate(0);
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            for (Order order : Order.getAllOrders()) {
+                encode(PLACED, order, snapshot);
+            }
+            drainBuffer(snapshot);
+            snapshot.force(true);
+        }
+        if (!temp.renameTo(snapshotFile)) {
+            throw new IOException("Could not replace " + snapshotFile);
+        }
+        channel.truncate(HEADER_SIZE);
+        channel.position(HEADER_SIZE);
+        channel.force(true);
+        recordsInJournal = 0;
+    }
+
+    private void encode(byte type, Order order) throws IOException {
+        encode(type, order, channel);
+    }
+
+    /**
+     * Encodes one record into the write buffer, draining the buffer to a file first if needed.
+     */
+    private void encode(byte type, Order order, FileChannel out) throws IOException {
+        int lineCount = type == PLACED ? order.getLineCount() : 0;
+        int length = type == PLACED ? PLACED_BODY_SIZE + lineCount * LINE_SIZE : CANCELED_BODY_SIZE;
+        if (buffer.remaining() < length + RECORD_OVERHEAD) {
+            drainBuffer(out);
+            if (buffer.capacity() < length + RECORD_OVERHEAD) {
+                buffer = ByteBuffer.allocateDirect(length + RECORD_OVERHEAD);
+            }
+        }
+        buffer.putInt(length);
+        int bodyStart = buffer.position();
+        buffer.put(type).putInt(order.getOrderNumber());
+        if (type == PLACED) {
+            buffer.putLong(order.getPlacedAt())
+                    .putInt(lineCount);
+            for (int line = 0; line < lineCount; line++) {
+                Pizza pizza = order.getLinePizza(line);
+                buffer.put((byte) pizza.getKind().ordinal())
+                        .put(pizza.getSize() == null ? -1 : (byte) pizza.getSize().ordinal())
+                        .put(pizza.getCrust() == null ? -1 : (byte) pizza.getCrust().ordinal())
+                        .putShort((short) pizza.getToppingMask())
+                        .putInt(order.getLineQuantity(line))
+                        .putLong(order.getLinePriceCents(line));
+            }
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.position(bodyStart).limit(bodyStart + length);
+        crc.reset();
+        crc.update(body);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void drainBuffer() throws IOException {
+        drainBuffer(channel);
+    }
+
+    private void drainBuffer(FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += out.write(data, position);
+        }
+    }
+}
@@ -1,15 +1,47 @@
 package com.example.rupizzeriaapp;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Manages the carts of the customers currently ordering.
+ * Each customer session has its own cart holding an unplaced {@link Order}. Carts are locked
+ * individually, so customers at different terminals never wait on each other. The methods
+ * without a session ID work on {@link #DEFAULT_SESSION}, the cart of this device's screens.
+ * Orders can be placed asynchronously through an {@link OrderPlacementPipeline}, so screens
+ * never wait for placement to finish. Placed orders are fed to the {@link KitchenScheduler},
+ * which schedules their pizzas across the ovens, and to the {@link SalesAnalytics} behind the
+ * sales figures. Placing an order reserves its toppings from the {@link ToppingInventory}.
+ */
 public class OrderManager {
+    /**
+     * The session ID used by the methods that do not take one.
+     */
+    public static final String DEFAULT_SESSION = "default";
+
     // Singleton instance
     private static OrderManager instance;
 
-    private Order currentOrder;
+    private final ConcurrentHashMap<String, Cart> carts = new ConcurrentHashMap<>();
+    private final OrderPlacementPipeline placementPipeline = new OrderPlacementPipeline();
+    private final KitchenScheduler kitchen = new KitchenScheduler();
+    private final SalesAnalytics analytics = new SalesAnalytics();
+    private final ToppingInventory inventory = new ToppingInventory();
+
+    /**
+     * A customer's cart. Every access to its order is synchronized on the cart itself.
+     */
+    private static final class Cart {
+        private Order order = new Order();
+    }
 
     private OrderManager() {
-        currentOrder = new Order();
+        Order.addOrderListener(kitchen);
+        Order.addOrderListener(analytics);
+        Order.setToppingInventory(inventory);
+        kitchen.start();
     }
 
     /**
@@ -25,6 +57,27 @@ public class OrderManager {
         return instance;
     }
 
+    /**
+     * Retrieves the cart of a session without opening one, for reading
+     *
+     * @param sessionId the session ID
+     * @return the session's cart, or null if the session has none
+     */
+    private Cart findCart(String sessionId) {
+        return carts.get(sessionId);
+    }
+
+    /**
+     * Retrieves the cart of a session, opening one if the session has none yet, for changing it
+     *
+     * @param sessionId the session ID
+     * @return the session's cart
+     */
+    private Cart openCart(String sessionId) {
+        Cart cart = carts.get(sessionId);
+        return cart != null ? cart : carts.computeIfAbsent(sessionId, id -> new Cart());
+    }
+
     /**
      * Adds a pizza to the current order
      *
@@ -32,16 +85,75 @@ public class OrderManager {
      * @return true if pizza was successfully added, false otherwise
      */
     public boolean addPizza(Pizza pizza) {
-        return currentOrder.addPizza(pizza);
+        return addPizza(DEFAULT_SESSION, pizza);
+    }
+
+    /**
+     * Adds a pizza to a session's current order
+     *
+     * @param sessionId the session ID
+     * @param pizza the pizza to be added
+     * @return true if pizza was successfully added, false otherwise
+     */
+    public boolean addPizza(String sessionId, Pizza pizza) {
+        Cart cart = openCart(sessionId);
+        synchronized (cart) {
+            return cart.order.addPizza(pizza);
+        }
     }
 
     /**
-     * Retrieves the current order
+     * Adds a batch of pizzas, e.g. a catering order, to the current order
      *
-     * @return the current Order object
+     * @param specs the pizzas to add, as {@link PizzaSpec} values
+     * @return the price of the batch in cents
+     * @throws IllegalArgumentException if a spec is invalid, in which case nothing is added
+     */
+    public long addBatch(long[] specs) {
+        return addBatch(DEFAULT_SESSION, specs);
+    }
+
+    /**
+     * Adds a batch of pizzas to a session's current order. The whole batch is added under the
+     * session's lock, so other threads see either none of it or all of it.
+     *
+     * @param sessionId the session ID
+     * @param specs the pizzas to add, as {@link PizzaSpec} values
+     * @return the price of the batch in cents
+     * @throws IllegalArgumentException if a spec is invalid, in which case nothing is added
+     */
+    public long addBatch(String sessionId, long[] specs) {
+        Cart cart = openCart(sessionId);
+        synchronized (cart) {
+            return cart.order.addBatch(specs);
+        }
+    }
+
+    /**
+     * Retrieves a copy of the current order
+     *
+     * @return a copy of the current Order, which cannot be placed
      */
     public Order getCurrentOrder() {
-        return currentOrder;
+        return getCurrentOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Retrieves a copy of a session's current order, taken under the session's lock, so it
+     * can be read while the session's cart keeps changing
+     *
+     * @param sessionId the session ID
+     * @return a copy of the session's current Order, which cannot be placed, or an empty order
+     * numbered 0 if the session has no cart
+     */
+    public Order getCurrentOrder(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return Order.detached(0, 0);
+        }
+        synchronized (cart) {
+            return cart.order.copy();
+        }
     }
 
     /**
@@ -50,23 +162,149 @@ public class OrderManager {
      * @return number of pizzas in the current order
      */
     public int getTotalPizzasInOrder() {
-        return currentOrder.getPizzas().size();
+        return getTotalPizzasInOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Gets the total number of pizzas in a session's current order
+     *
+     * @param sessionId the session ID
+     * @return number of pizzas in the session's current order
+     */
+    public int getTotalPizzasInOrder(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return 0;
+        }
+        synchronized (cart) {
+            return cart.order.getPizzaCount();
+        }
     }
 
     /**
      * Clears the pizzas in the current order
      */
     public void clearOrderDisplay() {
-        currentOrder.clearOrderDisplay();
+        clearOrderDisplay(DEFAULT_SESSION);
+    }
+
+    /**
+     * Clears the pizzas in a session's current order
+     *
+     * @param sessionId the session ID
+     */
+    public void clearOrderDisplay(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return;
+        }
+        synchronized (cart) {
+            cart.order.clearOrderDisplay();
+        }
     }
 
     /**
      * Places the current order
+     *
+     * @return the order that was placed
+     */
+    public Order placeOrder() {
+        return placeOrder(DEFAULT_SESSION);
+    }
+
+    /**
+     * Places a session's current order and gives the session a new, empty one.
+     * The swap happens under the session's lock, so pizzas added at the same time
+     * go either into the placed order or into the new one, never missing both.
+     * An order refused for lack of toppings is put back in the session's cart.
+     *
+     * @param sessionId the session ID
+     * @return the order that was placed, or the refused order, which is not placed
+     */
+    public Order placeOrder(String sessionId) {
+        Cart cart = openCart(sessionId);
+        Order placed;
+        synchronized (cart) {
+            placed = cart.order;
+            // Create a new order for subsequent additions
+            cart.order = new Order();
+        }
+        if (!placed.placeOrder()) {
+            returnToCart(cart, placed);
+        }
+        return placed;
+    }
+
+    /**
+     * Puts a refused order back in its cart, so the customer does not lose it. Pizzas added to
+     * the cart since it was swapped out are moved into it.
+     *
+     * @param cart the cart the order was taken from
+     * @param refused the order that was not placed
+     */
+    private static void returnToCart(Cart cart, Order refused) {
+        if (refused.isPlaced() || refused.isCanceled()) {
+            return;
+        }
+        synchronized (cart) {
+            refused.takeLinesFrom(cart.order);
+            cart.order = refused;
+        }
+    }
+
+    /**
+     * Places the current order in the background
+     *
+     * @param callbackExecutor the executor the callback runs on, e.g. the main thread
+     * @param callback receives the result of the placement
+     * @return the order being placed, or null if too many orders are waiting to be placed
+     */
+    public Order placeOrderAsync(Executor callbackExecutor, OrderPlacementPipeline.PlacementCallback callback) {
+        return placeOrderAsync(DEFAULT_SESSION, callbackExecutor, callback);
+    }
+
+    /**
+     * Hands a session's current order to the placement pipeline and gives the session a new,
+     * empty one. The order is queued and swapped under the session's lock, so a rejected order
+     * stays in the cart untouched. An order refused for lack of toppings is put back in the
+     * session's cart before the callback runs.
+     *
+     * @param sessionId the session ID
+     * @param callbackExecutor the executor the callback runs on, e.g. the main thread
+     * @param callback receives the result of the placement
+     * @return the order being placed, or null if too many orders are waiting to be placed
      */
-    public void placeOrder() {
-        currentOrder.placeOrder();
-        // Create a new order for subsequent additions
-        currentOrder = new Order();
+    public Order placeOrderAsync(String sessionId, Executor callbackExecutor,
+                                 OrderPlacementPipeline.PlacementCallback callback) {
+        Cart cart = openCart(sessionId);
+        synchronized (cart) {
+            Order submitted = cart.order;
+            if (!placementPipeline.submit(submitted, callbackExecutor, callback,
+                    refused -> returnToCart(cart, refused))) {
+                Metrics.increment(Metrics.Counter.PLACEMENT_QUEUE_FULL);
+                return null;
+            }
+            cart.order = new Order();
+            return submitted;
+        }
+    }
+
+    /**
+     * Ends a session, discarding its unplaced order
+     *
+     * @param sessionId the session ID
+     */
+    public void closeSession(String sessionId) {
+        carts.remove(sessionId);
+    }
+
+    /**
+     * Gets the number of sessions with an open cart
+     *
+     * @return number of open carts
+     */
+    public int getSessionCount() {
+        return carts.size();
     }
 
     /**
@@ -76,51 +314,160 @@ public class OrderManager {
      * @return true if pizza was successfully removed, false otherwise
      */
     public boolean removePizza(int index) {
-        return currentOrder.removePizza(index);
+        return removePizza(DEFAULT_SESSION, index);
+    }
+
+    /**
+     * Removes a pizza from a session's current order by index
+     *
+     * @param sessionId the session ID
+     * @param index the index of the pizza to remove
+     * @return true if pizza was successfully removed, false otherwise
+     */
+    public boolean removePizza(String sessionId, int index) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return false;
+        }
+        synchronized (cart) {
+            return cart.order.removePizza(index);
+        }
     }
 
     /**
      * Retrieves all pizzas in the current order
      *
-     * @return ArrayList of pizzas in the current order
+     * @return a copy of the List of pizzas in the current order
      */
-    public ArrayList<Pizza> getPizzas() {
-        return currentOrder.getPizzas();
+    public List<Pizza> getPizzas() {
+        return getPizzas(DEFAULT_SESSION);
+    }
+
+    /**
+     * Retrieves all pizzas in a session's current order. The list is copied under the
+     * session's lock, so it can be read while the session's cart keeps changing
+     *
+     * @param sessionId the session ID
+     * @return a copy of the List of pizzas in the session's current order
+     */
+    public List<Pizza> getPizzas(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return new ArrayList<>();
+        }
+        synchronized (cart) {
+            return new ArrayList<>(cart.order.getPizzas());
+        }
     }
 
     /**
      * Calculates the subtotal of the current order
      *
-     * @return subtotal amount
+     * @return subtotal amount in cents
+     */
+    public long getSubtotalCents() {
+        return getSubtotalCents(DEFAULT_SESSION);
+    }
+
+    /**
+     * Calculates the subtotal of a session's current order
+     *
+     * @param sessionId the session ID
+     * @return subtotal amount in cents
      */
-    public double getSubtotal() {
-        return currentOrder.getSubtotal();
+    public long getSubtotalCents(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return 0;
+        }
+        synchronized (cart) {
+            return cart.order.getSubtotalCents();
+        }
     }
 
     /**
      * Calculates the tax for the current order
      *
-     * @return tax amount
+     * @return tax amount in cents
+     */
+    public long getTaxCents() {
+        return getTaxCents(DEFAULT_SESSION);
+    }
+
+    /**
+     * Calculates the tax for a session's current order
+     *
+     * @param sessionId the session ID
+     * @return tax amount in cents
      */
-    public double getTax() {
-        return currentOrder.getTax();
+    public long getTaxCents(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return 0;
+        }
+        synchronized (cart) {
+            return cart.order.getTaxCents();
+        }
     }
 
     /**
      * Calculates the total cost of the current order
      *
-     * @return total amount
+     * @return total amount in cents
+     */
+    public long getTotalCents() {
+        return getTotalCents(DEFAULT_SESSION);
+    }
+
+    /**
+     * Calculates the total cost of a session's current order
+     *
+     * @param sessionId the session ID
+     * @return total amount in cents
+     */
+    public long getTotalCents(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return 0;
+        }
+        synchronized (cart) {
+            return cart.order.getTotalCents();
+        }
+    }
+
+    /**
+     * Retrieves the kitchen that bakes the placed orders
+     *
+     * @return the kitchen scheduler
+     */
+    public KitchenScheduler getKitchen() {
+        return kitchen;
+    }
+
+    /**
+     * Retrieves the topping stock that placed orders are reserved from
+     *
+     * @return the topping inventory
      */
-    public double getTotal() {
-        return currentOrder.getTotal();
+    public ToppingInventory getInventory() {
+        return inventory;
     }
 
     /**
-     * Retrieves all store orders
+     * Retrieves the sales figures of the orders placed since the app started
      *
-     * @return ArrayList of all orders
+     * @return the sales analytics
      */
-    public static ArrayList<Order> getAllOrders() {
+    public SalesAnalytics getAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Retrieves a snapshot of all store orders
+     *
+     * @return List of all orders
+     */
+    public static List<Order> getAllOrders() {
         return Order.getAllOrders();
     }
 
@@ -130,6 +477,22 @@ public class OrderManager {
      * @return order number
      */
     public int getCurrentOrderNumber() {
-        return currentOrder.getOrderNumber();
+        return getCurrentOrderNumber(DEFAULT_SESSION);
+    }
+
+    /**
+     * Gets the order number of a session's current order
+     *
+     * @param sessionId the session ID
+     * @return order number, or 0 if the session has no cart
+     */
+    public int getCurrentOrderNumber(String sessionId) {
+        Cart cart = findCart(sessionId);
+        if (cart == null) {
+            return 0;
+        }
+        synchronized (cart) {
+            return cart.order.getOrderNumber();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package com.example.rupizzeriaapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Places orders on a background thread, so callers such as the cart screen never wait for
+ * the placement stages (order book, journal, kitchen) to finish.
+ * <p>
+ * Submitted orders wait in a bounded queue for a single worker thread. The worker drains every
+ * order waiting at once into a batch, places the batch, then hands each result to the executor the
+ * submitter chose, typically the main thread. Results for consecutive orders with the same
+ * executor are delivered in one task. A full queue rejects new orders instead of blocking.
+ * </p>
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class OrderPlacementPipeline {
+    /**
+     * The number of orders that can wait to be placed by default.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int MAX_BATCH = 64;
+
+    private final ArrayBlockingQueue<Request> queue;
+
+    /**
+     * Receives the result of an asynchronous placement.
+     */
+    public interface PlacementCallback {
+        /**
+         * Called on the submitter's executor once the order has been placed or rejected.
+         *
+         * @param order  the order that was submitted
+         * @param placed true if the order was placed, false if it was rejected
+         */
+        void onPlacementComplete(Order order, boolean placed);
+    }
+
+    /**
+     * Takes back an order that could not be placed, e.g. to return it to its cart.
+     */
+    public interface RefusalHandler {
+        /**
+         * Called on the worker thread as soon as an order is refused, before any callback runs.
+         *
+         * @param order the order that was not placed
+         */
+        void onRefused(Order order);
+    }
+
+    /**
+     * An order waiting to be placed, and where to report the result.
+     */
+    private static final class Request {
+        final Order order;
+        final Executor callbackExecutor;
+        final PlacementCallback callback;
+        final RefusalHandler refusalHandler;
+        boolean placed;
+
+        Request(Order order, Executor callbackExecutor, PlacementCallback callback,
+                RefusalHandler refusalHandler) {
+            this.order = order;
+            this.callbackExecutor = callbackExecutor;
+            this.callback = callback;
+            this.refusalHandler = refusalHandler;
+        }
+    }
+
+    /**
+     * Creates a pipeline that holds up to {@link #DEFAULT_CAPACITY} waiting orders.
+     */
+    public OrderPlacementPipeline() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pipeline and starts its worker thread.
+     *
+     * @param capacity the number of orders that can wait to be placed
+     */
+    public OrderPlacementPipeline(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        Thread worker = new Thread(this::placeLoop, "order-placement");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues an order to be placed. Never blocks.
+     *
+     * @param order            the order to place
+     * @param callbackExecutor the executor the callback runs on, e.g. the main thread
+     * @param callback         receives the result of the placement
+     * @return true if the order was queued, false if the pipeline is full
+     */
+    public boolean submit(Order order, Executor callbackExecutor, PlacementCallback callback) {
+        return submit(order, callbackExecutor, callback, null);
+    }
+
+    /**
+     * Queues an order to be placed, with a handler that takes it back if it is refused. Never blocks.
+     *
+     * @param order            the order to place
+     * @param callbackExecutor the executor the callback runs on, e.g. the main thread
+     * @param callback         receives the result of the placement
+     * @param refusalHandler   takes back the order if it is not placed, or null
+     * @return true if the order was queued, false if the pipeline is full
+     */
+    public boolean submit(Order order, Executor callbackExecutor, PlacementCallback callback,
+                          RefusalHandler refusalHandler) {
+        return queue.offer(new Request(order, callbackExecutor, callback, refusalHandler));
+    }
+
+    /**
+     * Gets the number of orders waiting to be placed.
+     *
+     * @return the queue length
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Runs on the worker thread: places orders a batch at a time and reports the results.
+     */
+    private void placeLoop() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            for (Request request : batch) {
+                try {
+                    request.placed = request.order.placeOrder();
+                } catch (RuntimeException e) {
+                    Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+                    request.placed = false;
+                }
+                if (!request.placed && request.refusalHandler != null) {
+                    try {
+                        request.refusalHandler.onRefused(request.order);
+                    } catch (RuntimeException e) {
+                        // The order stays refused; its callback is still delivered
+                        Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+                    }
+                }
+            }
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Hands the results of a batch to their executors, one task per run of requests
+     * that share an executor. A callback or executor that throws a runtime exception loses
+     * only those results; the worker thread carries on placing the orders still queued.
+     */
+    private static void deliver(List<Request> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            Executor executor = batch.get(start).callbackExecutor;
+            int end = start + 1;
+            while (end < batch.size() && batch.get(end).callbackExecutor == executor) {
+                end++;
+            }
+            List<Request> run = new ArrayList<>(batch.subList(start, end));
+            try {
+                executor.execute(() -> {
+                    for (Request request : run) {
+                        try {
+                            request.callback.onPlacementComplete(request.order, request.placed);
+                        } catch (RuntimeException e) {
+                            // Skip to the next callback; the order itself is already placed or not
+                            Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Rejected; errors are left to kill the worker thread rather than be hidden
+                Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+            }
+            start = end;
+        }
+    }
+}
@@ -1,25 +1,52 @@
 package com.example.rupizzeriaapp;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 
 /**
  * Represents an abstract pizza with customizable toppings, crust, and size.
- * Subclasses of this class implement the {@link #price()} method to define pricing logic.
+ * Subclasses identify their {@link PizzaKind}, which is used to look up the price in the {@link PriceTable}.
  * This class provides methods to manage pizza attributes such as toppings, crust, and size.
+ * Toppings are kept as a bitmask over {@link Topping} ordinals, so adding, removing and
+ * checking a topping are single bit operations.
+ * A pizza can be frozen, after which it can no longer be changed and is safe to share;
+ * the factories hand out shared frozen pizzas for the specialty menu.
  * @author Sahil Patel, Shreyas Santosh
  */
 public abstract class Pizza {
-    private ArrayList<Topping> toppings;
+    /**
+     * The maximum number of toppings on a pizza.
+     */
+    public static final int MAX_TOPPINGS = 7;
+
+    private static final int ALL_TOPPINGS = (1 << Topping.values().length) - 1;
+
+    private int toppingMask;
     private Crust crust;
     private Size size;
-    public abstract double price();
+    private boolean frozen;
+
+    /**
+     * Identifies the kind of this pizza.
+     *
+     * @return the {@link PizzaKind} of the pizza
+     */
+    public abstract PizzaKind getKind();
 
     /**
-     * Constructs a pizza with an empty list of toppings.
+     * Calculates the price of the pizza from the current {@link PriceTable},
+     * based on its kind, size and number of toppings.
+     *
+     * @return the price in cents, or 0 for an unspecified size
+     */
+    public long priceCents() {
+        return PriceTable.getCurrent().price(getKind(), size, Integer.bitCount(toppingMask));
+    }
+
+    /**
+     * Constructs a pizza with no toppings.
      */
     public Pizza() {
-        toppings = new ArrayList<>();
+        toppingMask = 0;
     }
 
     /**
@@ -28,6 +55,7 @@ public abstract class Pizza {
      * @param crust the {@link Crust} to set
      */
     public void setCrust(Crust crust) {
+        checkNotFrozen();
         this.crust = crust;
     }
 
@@ -37,25 +65,60 @@ public abstract class Pizza {
      * @param size the {@link Size} to set
      */
     public void setSize(Size size) {
+        checkNotFrozen();
         this.size = size;
     }
 
     /**
-     * Sets the list of toppings for the pizza.
+     * Sets the toppings of the pizza from a bitmask over {@link Topping} ordinals.
+     *
+     * @param toppingMask the topping bitmask, see {@link Topping#mask()}
+     * @throws IllegalArgumentException if the mask has unknown bits or more than 7 toppings
+     */
+    public void setToppingMask(int toppingMask) {
+        checkNotFrozen();
+        if ((toppingMask & ~ALL_TOPPINGS) != 0 || Integer.bitCount(toppingMask) > MAX_TOPPINGS) {
+            throw new IllegalArgumentException("Invalid topping mask: " + Integer.toBinaryString(toppingMask));
+        }
+        this.toppingMask = toppingMask;
+    }
+
+    /**
+     * Retrieves the toppings of the pizza as a bitmask over {@link Topping} ordinals.
+     * Two pizzas have the same toppings exactly when their masks are equal.
+     *
+     * @return the topping bitmask
+     */
+    public int getToppingMask() {
+        return toppingMask;
+    }
+
+    /**
+     * Retrieves the toppings on the pizza, in {@link Topping} declaration order.
      *
-     * @param toppings an {@link ArrayList} of {@link Topping} objects
+     * @return a new {@link List} of {@link Topping} objects
      */
-    public void setToppings(ArrayList<Topping> toppings) {
-        this.toppings = toppings;
+    public List<Topping> getToppings() {
+        return Topping.fromMask(toppingMask);
     }
 
     /**
-     * Retrieves the list of toppings on the pizza.
+     * Retrieves the number of toppings on the pizza.
      *
-     * @return an {@link ArrayList} of {@link Topping} objects
+     * @return the topping count
      */
-    public ArrayList<Topping> getToppings() {
-        return toppings;
+    public int getToppingCount() {
+        return Integer.bitCount(toppingMask);
+    }
+
+    /**
+     * Checks whether the pizza has a topping.
+     *
+     * @param topping the {@link Topping} to check
+     * @return true if the topping is on the pizza, false otherwise
+     */
+    public boolean hasTopping(Topping topping) {
+        return (toppingMask & topping.mask()) != 0;
     }
 
     /**
@@ -78,16 +141,70 @@ public abstract class Pizza {
 
     /**
      * Adds a topping to the pizza.
-     * The maximum number of toppings is limited to 7.
+     * The maximum number of toppings is limited to 7, and adding a topping twice has no effect.
      *
      * @param topping the {@link Topping} to add
      */
     public void addTopping(Topping topping) {
-        if (toppings.size() < 7) {
-            toppings.add(topping);
+        checkNotFrozen();
+        if (Integer.bitCount(toppingMask) < MAX_TOPPINGS) {
+            toppingMask |= topping.mask();
         }
     }
 
+    /**
+     * Removes a topping from the pizza.
+     *
+     * @param topping the {@link Topping} to remove
+     */
+    public void removeTopping(Topping topping) {
+        checkNotFrozen();
+        toppingMask &= ~topping.mask();
+    }
+
+
+    /**
+     * Makes the pizza unchangeable, so that it can be shared between orders.
+     * Setters called on a frozen pizza throw {@link UnsupportedOperationException}.
+     *
+     * @return this pizza
+     */
+    public Pizza freeze() {
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Gets an unchangeable copy of the pizza, leaving this one changeable. A pizza that is
+     * already frozen is returned as it is, since it can be shared.
+     *
+     * @return a frozen pizza of the same kind, size, crust and toppings
+     */
+    public Pizza frozenCopy() {
+        if (frozen) {
+            return this;
+        }
+        Pizza copy = getKind().newPizza();
+        copy.size = size;
+        copy.crust = crust;
+        copy.toppingMask = toppingMask;
+        return copy.freeze();
+    }
+
+    /**
+     * Checks whether the pizza has been frozen.
+     *
+     * @return true if the pizza can no longer be changed
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Pizza is frozen and cannot be changed");
+        }
+    }
 
     /**
      * Provides a string representation of the pizza, including:
@@ -98,21 +215,10 @@ public abstract class Pizza {
      * - Price
      *
      * @return a formatted string describing the pizza
+     * @see ReceiptRenderer#appendPizza(StringBuilder, Pizza)
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(getClass().getSimpleName())
-                .append(" (").append(size).append(") ")
-                .append("[").append(crust).append("] ")
-                .append("Toppings: ");
-        for (Topping topping : toppings) {
-            sb.append(topping.toString().toLowerCase().replace('_', ' ')).append(", ");
-        }
-        if (!toppings.isEmpty()) {
-            sb.setLength(sb.length() - 2);
-        }
-        sb.append(" $").append(String.format("%.2f", price()));
-        return sb.toString();
+        return ReceiptRenderer.appendPizza(new StringBuilder(), this).toString();
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.rupizzeriaapp;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
@@ -17,17 +18,31 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Activity for creating and customizing Chicago-style pizzas.
+ * Activity for creating and customizing pizzas of one {@link PizzaStyle}.
  * Users can select the pizza type, size, and toppings, and add the pizza to their order.
+ * The style comes from the launching intent and selects the style's {@link PizzaFactory}.
  */
-public class ChicagoPizzaActivity extends AppCompatActivity {
-    private static final int MAX_TOPPINGS = 7;
-    private static final double TOPPING_PRICE = 1.69;
-
+public class PizzaBuilderActivity extends AppCompatActivity {
+    /**
+     * Intent extra holding the name of the {@link PizzaStyle} to build.
+     */
+    public static final String EXTRA_STYLE = "com.example.rupizzeriaapp.extra.STYLE";
+
+    private static final String[] PIZZA_TYPES = pizzaTypes();
+    private static final int[] TITLES = {R.string.chicago_pizza_title, R.string.ny_pizza_screen_title};
+    private static final int[] IMAGE_DESCRIPTIONS = {
+            R.string.chicago_pizza_image_description, R.string.ny_pizza_image_description
+    };
+    // Indexed by style, then by pizza kind, in PizzaKind declaration order
+    private static final int[][] PIZZA_IMAGES = {
+            {R.drawable.chicagopizza, R.drawable.bbq_chicken_chicago_pizza,
+                    R.drawable.deluxe_chicago_pizza, R.drawable.meatzza_chicago_pizza},
+            {R.drawable.ny_pizza, R.drawable.bbq_chicken_ny_pizza,
+                    R.drawable.deluxe_ny_pizza, R.drawable.meatzza_ny_pizza}
+    };
+
+    private TextView titleTextView;
     private Spinner pizzaTypeSpinner;
     private ImageView pizzaImage;
     private RadioGroup sizeRadioGroup;
@@ -36,14 +51,23 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     private Button addToOrderButton;
     private TextView totalPriceTextView;
 
-    private String selectedPizzaType;
+    private PizzaStyle style;
+    private PizzaFactory pizzaFactory;
+    private PizzaKind selectedPizzaKind = PizzaKind.BUILD_YOUR_OWN;
     private Size selectedSize;
-    private List<Topping> selectedToppings;
+    private int selectedToppingMask;
     private ToppingsAdapter toppingsAdapter;
-    private ChicagoPizza chicagoPizzaFactory;
-    private double basePrice;
-    private double toppingPrice;
 
+    /**
+     * Creates an intent that opens the builder for a style.
+     *
+     * @param context The context launching the builder.
+     * @param style   The style of pizza to build.
+     * @return The intent to start.
+     */
+    public static Intent newIntent(Context context, PizzaStyle style) {
+        return new Intent(context, PizzaBuilderActivity.class).putExtra(EXTRA_STYLE, style.name());
+    }
 
     /**
      * Called when the activity is first created.
@@ -54,7 +78,7 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_chicago_pizza);
+        setContentView(R.layout.activity_pizza_builder);
 
         initializeViews();
         setupPizzaTypeSpinner();
@@ -62,6 +86,44 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         setupBackButton();
         setupToppingsRecyclerView();
         setupAddToOrderButton();
+        applyStyle(styleOf(getIntent()));
+    }
+
+    /**
+     * Reads the style from an intent, defaulting to Chicago. The activity is exported, so the
+     * extra may come from another app; a missing or unknown style name also means Chicago.
+     */
+    private static PizzaStyle styleOf(Intent intent) {
+        String name = intent.getStringExtra(EXTRA_STYLE);
+        for (PizzaStyle style : PizzaStyle.values()) {
+            if (style.name().equals(name)) {
+                return style;
+            }
+        }
+        return PizzaStyle.CHICAGO;
+    }
+
+    /**
+     * Lists the pizza type names in spinner order.
+     */
+    private static String[] pizzaTypes() {
+        PizzaKind[] kinds = PizzaKind.values();
+        String[] pizzaTypes = new String[kinds.length];
+        for (PizzaKind kind : kinds) {
+            pizzaTypes[kind.ordinal()] = kind.getDisplayName();
+        }
+        return pizzaTypes;
+    }
+
+    /**
+     * Sets the style the screen builds: its factory, title and pizza image.
+     */
+    private void applyStyle(PizzaStyle style) {
+        this.style = style;
+        pizzaFactory = style.getFactory();
+        titleTextView.setText(TITLES[style.ordinal()]);
+        pizzaImage.setContentDescription(getString(IMAGE_DESCRIPTIONS[style.ordinal()]));
+        updatePizzaImage();
     }
 
     /**
@@ -69,17 +131,14 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      */
     private void setupBackButton() {
         Button backButton = findViewById(R.id.back_button);
-        backButton.setOnClickListener(v -> {
-            Intent intent = new Intent(this, MainActivity.class);
-            startActivity(intent);
-            finish();
-        });
+        backButton.setOnClickListener(v -> finish());
     }
 
     /**
      * Initializes all UI components and default values.
      */
     private void initializeViews() {
+        titleTextView = findViewById(R.id.pizza_builder_title);
         pizzaTypeSpinner = findViewById(R.id.pizza_type_spinner);
         pizzaImage = findViewById(R.id.pizza_image);
         sizeRadioGroup = findViewById(R.id.size_radio_group);
@@ -90,28 +149,25 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
         addToOrderButton = findViewById(R.id.add_to_order_button);
         totalPriceTextView = findViewById(R.id.total_price_text_view);
 
-        selectedToppings = new ArrayList<>();
-        chicagoPizzaFactory = new ChicagoPizza();
+        selectedToppingMask = 0;
         smallRadio.setChecked(true);
         selectedSize = Size.SMALL;
     }
 
-
     /**
      * Configures the spinner to display available pizza types and updates the UI
      * based on the selected type.
      */
     private void setupPizzaTypeSpinner() {
-        String[] pizzaTypes = {"Build Your Own", "BBQ Chicken", "Deluxe", "Meatzza"};
         ArrayAdapter<String> adapter = new ArrayAdapter<>(this,
-                android.R.layout.simple_spinner_item, pizzaTypes);
+                android.R.layout.simple_spinner_item, PIZZA_TYPES);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         pizzaTypeSpinner.setAdapter(adapter);
 
         pizzaTypeSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                selectedPizzaType = pizzaTypes[position];
+                selectedPizzaKind = PizzaKind.byOrdinal(position);
                 updatePizzaComponents();
             }
 
@@ -134,53 +190,25 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     }
 
     /**
-     * Configures the RecyclerView to display available toppings and handle user selections.
+     * Configures the RecyclerView to display the topping catalogue and handle user selections.
      */
     private void setupToppingsRecyclerView() {
-        List<ToppingItem> toppingItems = createToppingItems();
-
-        if (selectedPizzaType == null) {
-            selectedPizzaType = "Build Your Own";
-        }
-
-        boolean isPredefinedPizza = !selectedPizzaType.equals("Build Your Own");
-        toppingsAdapter = new ToppingsAdapter(toppingItems, this::onToppingSelected, isPredefinedPizza);
+        boolean isPredefinedPizza = selectedPizzaKind != PizzaKind.BUILD_YOUR_OWN;
+        toppingsAdapter = new ToppingsAdapter(ToppingCatalog.newToppingItems(), this::onToppingSelected, isPredefinedPizza);
         toppingsRecyclerView.setLayoutManager(new GridLayoutManager(this, 3));
         toppingsRecyclerView.setAdapter(toppingsAdapter);
     }
 
-    /**
-     * Creates a list of available topping items.
-     * @return A list of {@link ToppingItem} objects representing toppings.
-     */
-    private List<ToppingItem> createToppingItems() {
-        List<ToppingItem> toppingItems = new ArrayList<>();
-        toppingItems.add(new ToppingItem(Topping.SAUSAGE, "Sausage", R.drawable.topping_sausage));
-        toppingItems.add(new ToppingItem(Topping.PEPPERONI, "Pepperoni", R.drawable.topping_pepperoni));
-        toppingItems.add(new ToppingItem(Topping.GREEN_PEPPER, "Green Pepper", R.drawable.topping_green_pepper));
-        toppingItems.add(new ToppingItem(Topping.ONION, "Onion", R.drawable.topping_onion));
-        toppingItems.add(new ToppingItem(Topping.MUSHROOM, "Mushroom", R.drawable.topping_mushroom));
-        toppingItems.add(new ToppingItem(Topping.BBQ_CHICKEN, "BBQ Chicken", R.drawable.topping_bbq_chicken));
-        toppingItems.add(new ToppingItem(Topping.PROVOLONE, "Provolone", R.drawable.topping_provolone));
-        toppingItems.add(new ToppingItem(Topping.CHEDDAR, "Cheddar", R.drawable.topping_cheddar));
-        toppingItems.add(new ToppingItem(Topping.BEEF, "Beef", R.drawable.topping_beef));
-        toppingItems.add(new ToppingItem(Topping.HAM, "Ham", R.drawable.topping_ham));
-        toppingItems.add(new ToppingItem(Topping.JALAPENOS, "Jalapenos", R.drawable.topping_jalapenos));
-        toppingItems.add(new ToppingItem(Topping.PINEAPPLES, "Pineapples", R.drawable.topping_pineapple));
-        toppingItems.add(new ToppingItem(Topping.OLIVES, "Olives", R.drawable.topping_olives));
-        return toppingItems;
-    }
-
     /**
      * Handles topping selection and updates the UI and price accordingly.
      * @param toppingItem The topping item being selected or deselected.
      * @param isChecked True if the topping is selected, false otherwise.
      */
     private void onToppingSelected(ToppingItem toppingItem, boolean isChecked) {
-        if (isChecked && !selectedToppings.contains(toppingItem.topping)) {
-            selectedToppings.add(toppingItem.topping);
+        if (isChecked) {
+            selectedToppingMask |= toppingItem.topping.mask();
         } else {
-            selectedToppings.remove(toppingItem.topping);
+            selectedToppingMask &= ~toppingItem.topping.mask();
         }
 
         updateToppingAvailability();
@@ -191,35 +219,30 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      * Updates the availability of topping selections based on the maximum allowed toppings.
      */
     private void updateToppingAvailability() {
-        boolean canAddMoreToppings = selectedToppings.size() < MAX_TOPPINGS;
+        boolean canAddMoreToppings = Integer.bitCount(selectedToppingMask) < Pizza.MAX_TOPPINGS;
         toppingsAdapter.setToppingSelectionEnabled(canAddMoreToppings);
     }
 
+    /**
+     * Shows the picture of the selected pizza type in the current style.
+     */
+    private void updatePizzaImage() {
+        ImageLoader.get(this).load(pizzaImage, PIZZA_IMAGES[style.ordinal()][selectedPizzaKind.ordinal()]);
+    }
+
     /**
      * Updates the UI and available components when the pizza type changes.
      */
     private void updatePizzaComponents() {
-        switch (selectedPizzaType) {
-            case "Deluxe":
-                pizzaImage.setImageResource(R.drawable.deluxe_chicago_pizza);
-                break;
-            case "BBQ Chicken":
-                pizzaImage.setImageResource(R.drawable.bbq_chicken_chicago_pizza);
-                break;
-            case "Meatzza":
-                pizzaImage.setImageResource(R.drawable.meatzza_chicago_pizza);
-                break;
-            default:
-                pizzaImage.setImageResource(R.drawable.chicagopizza);
-        }
+        updatePizzaImage();
 
-        if (selectedPizzaType.equals("Build Your Own")) {
-            selectedToppings.clear();
+        if (selectedPizzaKind == PizzaKind.BUILD_YOUR_OWN) {
+            selectedToppingMask = 0;
             toppingsAdapter.resetToppingSelections();
             toppingsAdapter.setToppingSelectionEnabled(true);
         } else {
-            selectedToppings = Topping.getToppings(selectedPizzaType);
-            toppingsAdapter.setPreselectedToppings(selectedToppings);
+            selectedToppingMask = selectedPizzaKind.getPresetToppingMask();
+            toppingsAdapter.setPreselectedToppings(selectedToppingMask);
             toppingsAdapter.setToppingSelectionEnabled(false);
         }
 
@@ -242,12 +265,12 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      * @return True if the order is valid, false otherwise.
      */
     private boolean validatePizzaOrder() {
-        if (selectedPizzaType == null) {
+        if (selectedPizzaKind == null) {
             Toast.makeText(this, "Please select a pizza type", Toast.LENGTH_SHORT).show();
             return false;
         }
 
-        if (!selectedPizzaType.equals("Build Your Own") && selectedToppings.isEmpty()) {
+        if (selectedPizzaKind != PizzaKind.BUILD_YOUR_OWN && selectedToppingMask == 0) {
             Toast.makeText(this, "Please add toppings to your pizza", Toast.LENGTH_SHORT).show();
             return false;
         }
@@ -260,11 +283,6 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      */
     private void addPizzaToOrder() {
         Pizza newPizza = createPizza();
-        newPizza.setSize(selectedSize);
-
-        for (Topping topping : selectedToppings) {
-            newPizza.addTopping(topping);
-        }
 
         if (OrderManager.getInstance().addPizza(newPizza)) {
             Toast.makeText(this, "Pizza added to order", Toast.LENGTH_SHORT).show();
@@ -275,19 +293,30 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
     }
 
     /**
-     * Creates a pizza based on the selected type.
+     * Creates a pizza based on the selected type and size.
+     * Specialty pizzas are the factory's shared instances; only Build Your Own pizzas are allocated.
      */
     private Pizza createPizza() {
-        switch(selectedPizzaType) {
-            case "BBQ Chicken":
-                return chicagoPizzaFactory.createBBQChicken();
-            case "Deluxe":
-                return chicagoPizzaFactory.createDeluxe();
-            case "Meatzza":
-                return chicagoPizzaFactory.createMeatzza();
-            case "Build Your Own":
+        long start = Metrics.start();
+        Pizza pizza = createFromFactory();
+        Metrics.stop(Metrics.Probe.FACTORY_CREATE, start);
+        return pizza;
+    }
+
+    private Pizza createFromFactory() {
+        switch (selectedPizzaKind) {
+            case BBQ_CHICKEN:
+                return pizzaFactory.createBBQChicken(selectedSize);
+            case DELUXE:
+                return pizzaFactory.createDeluxe(selectedSize);
+            case MEATZZA:
+                return pizzaFactory.createMeatzza(selectedSize);
+            case BUILD_YOUR_OWN:
             default:
-                return chicagoPizzaFactory.createBuildYourOwn();
+                Pizza pizza = pizzaFactory.createBuildYourOwn();
+                pizza.setSize(selectedSize);
+                pizza.setToppingMask(selectedToppingMask);
+                return pizza;
         }
     }
 
@@ -295,29 +324,8 @@ public class ChicagoPizzaActivity extends AppCompatActivity {
      * Updates the displayed price based on the selected size and toppings.
      */
     private void updatePrice() {
-        switch (selectedPizzaType.toLowerCase()) {
-            case "deluxe":
-                basePrice = (selectedSize == Size.SMALL) ? 16.99 :
-                        (selectedSize == Size.MEDIUM) ? 18.99 : 20.99;
-                break;
-            case "bbq chicken":
-                basePrice = (selectedSize == Size.SMALL) ? 14.99 :
-                        (selectedSize == Size.MEDIUM) ? 16.99 : 19.99;
-                break;
-            case "meatzza":
-                basePrice = (selectedSize == Size.SMALL) ? 17.99 :
-                        (selectedSize == Size.MEDIUM) ? 19.99 : 21.99;
-                break;
-            case "build your own":
-                basePrice = (selectedSize == Size.SMALL) ? 8.99 :
-                        (selectedSize == Size.MEDIUM) ? 10.99 : 12.99;
-                break;
-        }
-
-        toppingPrice = selectedPizzaType.equals("Build Your Own") ?
-                selectedToppings.size() * TOPPING_PRICE : 0.0;
-
-        double totalPrice = basePrice + toppingPrice;
-        totalPriceTextView.setText(String.format("Total: $%.2f", totalPrice));
+        long totalPrice = PriceTable.getCurrent()
+                .price(selectedPizzaKind, selectedSize, Integer.bitCount(selectedToppingMask));
+        totalPriceTextView.setText("Total: $" + Money.format(totalPrice));
     }
 }
@@ -3,6 +3,8 @@ package com.example.rupizzeriaapp;
 /**
  * Factory interface for creating various types of pizzas.
  * Implementing classes define the specifics of how each type of pizza is created.
+ * The sized specialty methods return shared, frozen pizzas and allocate nothing; the no-argument
+ * methods return a new pizza that the caller can still configure.
  * @author Sahil Patel, Shreyas Santosh
  */
 
@@ -14,6 +16,14 @@ public interface PizzaFactory {
      */
     Pizza createDeluxe();
 
+    /**
+     * Retrieves the shared Deluxe pizza of a size, in the factory's style.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Pizza} shared by every caller
+     */
+    Pizza createDeluxe(Size size);
+
     /**
      * Creates a Meatzza pizza with predefined toppings and crust specific to the factory's style.
      *
@@ -21,6 +31,14 @@ public interface PizzaFactory {
      */
     Pizza createMeatzza();
 
+    /**
+     * Retrieves the shared Meatzza pizza of a size, in the factory's style.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Pizza} shared by every caller
+     */
+    Pizza createMeatzza(Size size);
+
     /**
      * Creates a BBQ Chicken pizza with predefined toppings and crust specific to the factory's style.
      *
@@ -28,6 +46,14 @@ public interface PizzaFactory {
      */
     Pizza createBBQChicken();
 
+    /**
+     * Retrieves the shared BBQ Chicken pizza of a size, in the factory's style.
+     *
+     * @param size the size of the pizza
+     * @return a frozen {@link Pizza} shared by every caller
+     */
+    Pizza createBBQChicken(Size size);
+
     /**
      * Creates a customizable Build Your Own pizza with a default crust specific to the factory's style.
      *
@@ -0,0 +1,122 @@
+package com.example.rupizzeriaapp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Enum representing the kinds of pizza on the menu, independent of their style.
+ * The constants are declared in the order the pizza type spinners list them.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public enum PizzaKind {
+    BUILD_YOUR_OWN("Build Your Own", "BuildYourOwn", 0),
+    BBQ_CHICKEN("BBQ Chicken", "BBQChicken",
+            Topping.BBQ_CHICKEN.mask() | Topping.GREEN_PEPPER.mask()
+                    | Topping.PROVOLONE.mask() | Topping.CHEDDAR.mask()),
+    DELUXE("Deluxe", "Deluxe",
+            Topping.SAUSAGE.mask() | Topping.PEPPERONI.mask() | Topping.GREEN_PEPPER.mask()
+                    | Topping.ONION.mask() | Topping.MUSHROOM.mask()),
+    MEATZZA("Meatzza", "Meatzza",
+            Topping.SAUSAGE.mask() | Topping.PEPPERONI.mask()
+                    | Topping.BEEF.mask() | Topping.HAM.mask());
+
+    private static final PizzaKind[] VALUES = values();
+
+    private final String displayName;
+    private final String receiptName;
+    private final int presetToppingMask;
+    private final List<Topping> presetToppings;
+
+    /**
+     * pizza kind constructor
+     * @param displayName the name shown to customers
+     * @param receiptName the name printed on receipts
+     * @param presetToppingMask the toppings the kind comes with, as a bitmask
+     */
+    PizzaKind(String displayName, String receiptName, int presetToppingMask) {
+        this.displayName = displayName;
+        this.receiptName = receiptName;
+        this.presetToppingMask = presetToppingMask;
+        this.presetToppings = Collections.unmodifiableList(Topping.fromMask(presetToppingMask));
+    }
+
+    /**
+     * Retrieves the name shown to customers, e.g. "BBQ Chicken".
+     *
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Retrieves the name printed on receipts, which is the name of the pizza's class, e.g. "BBQChicken".
+     *
+     * @return the receipt name
+     */
+    public String getReceiptName() {
+        return receiptName;
+    }
+
+    /**
+     * Retrieves the toppings this kind of pizza comes with, as a bitmask over {@link Topping} ordinals.
+     *
+     * @return the preset topping bitmask, 0 for Build Your Own
+     */
+    public int getPresetToppingMask() {
+        return presetToppingMask;
+    }
+
+    /**
+     * Retrieves the toppings this kind of pizza comes with, in {@link Topping} declaration order.
+     *
+     * @return an immutable list shared by every caller, empty for Build Your Own
+     */
+    public List<Topping> getPresetToppings() {
+        return presetToppings;
+    }
+
+    /**
+     * Retrieves the pizza kind at a position of the pizza type spinners without copying {@link #values()}.
+     *
+     * @param ordinal the ordinal of the kind, which is its spinner position
+     * @return the kind
+     */
+    public static PizzaKind byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Creates a new pizza of this kind, with the kind's preset toppings and no crust or size.
+     *
+     * @return a new {@link Pizza}
+     */
+    public Pizza newPizza() {
+        switch (this) {
+            case BBQ_CHICKEN:
+                return new BBQChicken();
+            case DELUXE:
+                return new Deluxe();
+            case MEATZZA:
+                return new Meatzza();
+            case BUILD_YOUR_OWN:
+            default:
+                return new BuildYourOwn();
+        }
+    }
+
+    /**
+     * Looks up a pizza kind by its display name, ignoring case.
+     *
+     * @param displayName the display name, e.g. "Build Your Own"
+     * @return the matching kind, or null if the name is unrecognized
+     */
+    public static PizzaKind fromDisplayName(String displayName) {
+        for (PizzaKind kind : VALUES) {
+            if (kind.displayName.equalsIgnoreCase(displayName)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+}
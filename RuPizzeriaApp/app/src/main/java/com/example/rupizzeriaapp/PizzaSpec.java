@@ -0,0 +1,189 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Utility methods for pizza specs: a kind, style, size, topping mask and quantity packed into
+ * one primitive {@code long}, for taking large catering orders without building a {@link Pizza}
+ * per pie.
+ * <p>
+ * From the lowest bit up, a spec holds the quantity (32 bits), the topping mask (16 bits), then
+ * the {@link Size}, {@link PizzaStyle} and {@link PizzaKind} ordinals (4 bits each).
+ * See {@link Order#addBatch(long[])}.
+ * </p>
+ * Configuration keys identify interchangeable pizzas, so an order can hold them as one line item.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class PizzaSpec {
+    private static final int MASK_SHIFT = 32;
+    private static final int SIZE_SHIFT = 48;
+    private static final int STYLE_SHIFT = 52;
+    private static final int KIND_SHIFT = 56;
+    private static final int ALL_TOPPINGS = (1 << Topping.values().length) - 1;
+
+    private static final PizzaKind[] KINDS = PizzaKind.values();
+    private static final PizzaStyle[] STYLES = PizzaStyle.values();
+    private static final Size[] SIZES = Size.values();
+
+    private PizzaSpec() {
+    }
+
+    /**
+     * Packs a spec.
+     *
+     * @param kind        the kind of pizza
+     * @param style       the style of pizza
+     * @param size        the size of pizza
+     * @param toppingMask the toppings, as a bitmask over {@link Topping} ordinals
+     * @param quantity    the number of pizzas
+     * @return the spec
+     */
+    public static long of(PizzaKind kind, PizzaStyle style, Size size, int toppingMask, int quantity) {
+        return (long) kind.ordinal() << KIND_SHIFT
+                | (long) style.ordinal() << STYLE_SHIFT
+                | (long) size.ordinal() << SIZE_SHIFT
+                | (long) (toppingMask & 0xFFFF) << MASK_SHIFT
+                | (quantity & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs a spec for a specialty pizza with its preset toppings.
+     *
+     * @param kind     the kind of pizza
+     * @param style    the style of pizza
+     * @param size     the size of pizza
+     * @param quantity the number of pizzas
+     * @return the spec
+     */
+    public static long of(PizzaKind kind, PizzaStyle style, Size size, int quantity) {
+        return of(kind, style, size, kind.getPresetToppingMask(), quantity);
+    }
+
+    /**
+     * @param spec a spec
+     * @return the kind of pizza
+     */
+    public static PizzaKind kind(long spec) {
+        return KINDS[(int) (spec >>> KIND_SHIFT) & 0xF];
+    }
+
+    /**
+     * @param spec a spec
+     * @return the style of pizza
+     */
+    public static PizzaStyle style(long spec) {
+        return STYLES[(int) (spec >>> STYLE_SHIFT) & 0xF];
+    }
+
+    /**
+     * @param spec a spec
+     * @return the size of pizza
+     */
+    public static Size size(long spec) {
+        return SIZES[(int) (spec >>> SIZE_SHIFT) & 0xF];
+    }
+
+    /**
+     * @param spec a spec
+     * @return the toppings, as a bitmask over {@link Topping} ordinals
+     */
+    public static int toppingMask(long spec) {
+        return (int) (spec >>> MASK_SHIFT) & 0xFFFF;
+    }
+
+    /**
+     * @param spec a spec
+     * @return the number of pizzas
+     */
+    public static int quantity(long spec) {
+        return (int) spec;
+    }
+
+    /**
+     * Checks that a spec describes pizzas the store can make: known kind, style and size, at most
+     * {@link Pizza#MAX_TOPPINGS} known toppings, the preset toppings for a specialty pizza, and a
+     * positive quantity.
+     *
+     * @param spec a spec
+     * @throws IllegalArgumentException naming the first problem found
+     */
+    public static void validate(long spec) {
+        int kind = (int) (spec >>> KIND_SHIFT);
+        if (kind >= KINDS.length) {
+            throw new IllegalArgumentException("Unknown pizza kind " + kind);
+        }
+        if (((int) (spec >>> STYLE_SHIFT) & 0xF) >= STYLES.length) {
+            throw new IllegalArgumentException("Unknown pizza style " + ((spec >>> STYLE_SHIFT) & 0xF));
+        }
+        if (((int) (spec >>> SIZE_SHIFT) & 0xF) >= SIZES.length) {
+            throw new IllegalArgumentException("Unknown pizza size " + ((spec >>> SIZE_SHIFT) & 0xF));
+        }
+        int mask = toppingMask(spec);
+        if ((mask & ~ALL_TOPPINGS) != 0 || Integer.bitCount(mask) > Pizza.MAX_TOPPINGS) {
+            throw new IllegalArgumentException("Invalid topping mask: " + Integer.toBinaryString(mask));
+        }
+        PizzaKind pizzaKind = KINDS[kind];
+        if (pizzaKind != PizzaKind.BUILD_YOUR_OWN && mask != pizzaKind.getPresetToppingMask()) {
+            throw new IllegalArgumentException(pizzaKind.getDisplayName() + " toppings cannot be changed");
+        }
+        if (quantity(spec) <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity(spec));
+        }
+    }
+
+    /**
+     * Computes the canonical key of a pizza's configuration: its kind, crust, size and toppings.
+     * Two pizzas have equal keys exactly when they are interchangeable in an order.
+     *
+     * @param pizza a pizza
+     * @return the configuration key
+     */
+    public static long configurationKey(Pizza pizza) {
+        return configurationKey(pizza.getKind(), pizza.getCrust(), pizza.getSize(), pizza.getToppingMask());
+    }
+
+    /**
+     * Computes the canonical key of the configuration a spec describes, equal to the
+     * {@link #configurationKey(Pizza)} of {@link #toPizza(long)}.
+     *
+     * @param spec a valid spec
+     * @return the configuration key
+     */
+    public static long configurationKey(long spec) {
+        PizzaKind kind = kind(spec);
+        return configurationKey(kind, Crust.of(kind, style(spec)), size(spec), toppingMask(spec));
+    }
+
+    private static long configurationKey(PizzaKind kind, Crust crust, Size size, int toppingMask) {
+        // Crust and size are stored one up, so that 0 stands for an unset crust or size
+        return (long) kind.ordinal() << 32
+                | (long) (crust == null ? 0 : crust.ordinal() + 1) << 24
+                | (long) (size == null ? 0 : size.ordinal() + 1) << 16
+                | toppingMask;
+    }
+
+    /**
+     * Retrieves a frozen pizza matching a spec, ignoring its quantity. Specialty pizzas are the
+     * shared ones from the style's {@link PizzaFactory}; Build Your Own pizzas are created.
+     *
+     * @param spec a valid spec
+     * @return the frozen pizza
+     */
+    public static Pizza toPizza(long spec) {
+        PizzaStyle style = style(spec);
+        Size size = size(spec);
+        switch (kind(spec)) {
+            case DELUXE:
+                return style.getFactory().createDeluxe(size);
+            case MEATZZA:
+                return style.getFactory().createMeatzza(size);
+            case BBQ_CHICKEN:
+                return style.getFactory().createBBQChicken(size);
+            case BUILD_YOUR_OWN:
+            default:
+                Pizza pizza = new BuildYourOwn();
+                pizza.setCrust(Crust.of(PizzaKind.BUILD_YOUR_OWN, style));
+                pizza.setSize(size);
+                pizza.setToppingMask(toppingMask(spec));
+                return pizza.freeze();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Enum representing the styles of pizza the store bakes.
+ * Together with a {@link PizzaKind}, the style determines the {@link Crust} of a pizza,
+ * and each style has a {@link PizzaFactory} that bakes its pizzas.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public enum PizzaStyle {
+    CHICAGO("Chicago"),
+    NEW_YORK("New York");
+
+    private static final PizzaStyle[] VALUES = values();
+
+    private final String displayName;
+
+    /**
+     * pizza style constructor
+     * @param displayName the name shown to customers
+     */
+    PizzaStyle(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Retrieves the name shown to customers, e.g. "New York".
+     *
+     * @return the display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Retrieves the factory for this style. Factories are stateless, so one is shared per style.
+     *
+     * @return the {@link PizzaFactory} of this style
+     */
+    public PizzaFactory getFactory() {
+        return this == CHICAGO ? Factories.CHICAGO : Factories.NEW_YORK;
+    }
+
+    /**
+     * Looks up a pizza style by its display name, ignoring case.
+     *
+     * @param displayName the display name, e.g. "Chicago"
+     * @return the matching style, or null if the name is unrecognized
+     */
+    public static PizzaStyle fromDisplayName(String displayName) {
+        for (PizzaStyle style : VALUES) {
+            if (style.displayName.equalsIgnoreCase(displayName)) {
+                return style;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Holds the shared factories, created the first time one is needed.
+     */
+    private static final class Factories {
+        static final PizzaFactory CHICAGO = new ChicagoPizza();
+        static final PizzaFactory NEW_YORK = new NYPizza();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Builds the shared, frozen specialty pizzas handed out by the {@link PizzaFactory} implementations.
+ * A specialty pizza is fully determined by its kind, crust and size, so one frozen instance per
+ * size can be shared by every order instead of allocating a new pizza each time.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+final class PizzaTemplates {
+    private PizzaTemplates() {
+    }
+
+    /**
+     * Creates one frozen pizza of a kind and crust for each {@link Size}.
+     *
+     * @param kind  the kind of pizza
+     * @param crust the crust of the pizza
+     * @return the frozen pizzas, indexed by {@link Size} ordinal
+     */
+    static Pizza[] bySize(PizzaKind kind, Crust crust) {
+        Size[] sizes = Size.values();
+        Pizza[] templates = new Pizza[sizes.length];
+        for (Size size : sizes) {
+            Pizza pizza = kind.newPizza();
+            pizza.setCrust(crust);
+            pizza.setSize(size);
+            templates[size.ordinal()] = pizza.freeze();
+        }
+        return templates;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Immutable menu price table indexed by {@link PizzaKind} and {@link Size} ordinals.
+ * Looking up a price is a single array read. The table in use can be replaced as a whole
+ * with {@link #setCurrent(PriceTable)} to reprice the menu without a code change.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class PriceTable {
+    private static final int SIZE_COUNT = Size.values().length;
+    private static final int KIND_COUNT = PizzaKind.values().length;
+
+    /**
+     * The default menu prices, in cents:
+     * <ul>
+     *     <li>Build Your Own: $8.99 / $10.99 / $12.99, plus $1.69 per topping</li>
+     *     <li>BBQ Chicken: $14.99 / $16.99 / $19.99</li>
+     *     <li>Deluxe: $16.99 / $18.99 / $20.99</li>
+     *     <li>Meatzza: $17.99 / $19.99 / $21.99</li>
+     * </ul>
+     */
+    public static final PriceTable DEFAULT = new PriceTable(
+            new long[][] {
+                    {899, 1099, 1299},
+                    {1499, 1699, 1999},
+                    {1699, 1899, 2099},
+                    {1799, 1999, 2199}
+            },
+            new long[] {169, 0, 0, 0});
+
+    private static volatile PriceTable current = DEFAULT;
+
+    private final long[] basePrices;
+    private final long[] toppingPrices;
+
+    /**
+     * Constructs a price table. The arrays are copied, so the table cannot change afterwards.
+     *
+     * @param basePrices    base prices in cents, indexed by [kind ordinal][size ordinal]
+     * @param toppingPrices the price per topping in cents, indexed by kind ordinal
+     * @throws IllegalArgumentException if the arrays do not cover every kind and size
+     */
+    public PriceTable(long[][] basePrices, long[] toppingPrices) {
+        if (basePrices.length != KIND_COUNT || toppingPrices.length != KIND_COUNT) {
+            throw new IllegalArgumentException("Prices must be given for all " + KIND_COUNT + " pizza kinds");
+        }
+        this.basePrices = new long[KIND_COUNT * SIZE_COUNT];
+        for (int kind = 0; kind < KIND_COUNT; kind++) {
+            if (basePrices[kind].length != SIZE_COUNT) {
+                throw new IllegalArgumentException("Prices must be given for all " + SIZE_COUNT + " sizes");
+            }
+            System.arraycopy(basePrices[kind], 0, this.basePrices, kind * SIZE_COUNT, SIZE_COUNT);
+        }
+        this.toppingPrices = toppingPrices.clone();
+    }
+
+    /**
+     * Retrieves the price table currently in use.
+     *
+     * @return the current price table
+     */
+    public static PriceTable getCurrent() {
+        return current;
+    }
+
+    /**
+     * Replaces the price table in use. Pizzas already in an order keep the price they were added at.
+     *
+     * @param table the new price table
+     */
+    public static void setCurrent(PriceTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("Price table cannot be null");
+        }
+        current = table;
+    }
+
+    /**
+     * Retrieves the base price of a pizza without extra toppings.
+     *
+     * @param kind the kind of pizza
+     * @param size the size of the pizza
+     * @return the base price in cents, or 0 for an unspecified size
+     */
+    public long basePrice(PizzaKind kind, Size size) {
+        return size == null ? 0 : basePrices[kind.ordinal() * SIZE_COUNT + size.ordinal()];
+    }
+
+    /**
+     * Retrieves the price charged per topping; 0 for pizzas whose toppings are included.
+     *
+     * @param kind the kind of pizza
+     * @return the topping price in cents
+     */
+    public long toppingPrice(PizzaKind kind) {
+        return toppingPrices[kind.ordinal()];
+    }
+
+    /**
+     * Calculates the price of a pizza.
+     *
+     * @param kind         the kind of pizza
+     * @param size         the size of the pizza
+     * @param toppingCount the number of toppings on the pizza
+     * @return the price in cents, or 0 for an unspecified size
+     */
+    public long price(PizzaKind kind, Size size, int toppingCount) {
+        if (size == null) {
+            return 0;
+        }
+        return basePrices[kind.ordinal() * SIZE_COUNT + size.ordinal()]
+                + toppingCount * toppingPrices[kind.ordinal()];
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Renders pizzas and orders as receipt text into a caller-supplied {@link StringBuilder}.
+ * Names come from precomputed strings on {@link PizzaKind}, {@link Size}, {@link Crust} and
+ * {@link Topping}, and amounts are written with {@link Money#appendTo(StringBuilder, long)},
+ * so rendering into a reused builder allocates nothing beyond growing the builder.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public final class ReceiptRenderer {
+    private ReceiptRenderer() {
+    }
+
+    /**
+     * Appends one receipt line for a pizza at its current menu price, e.g.
+     * {@code Deluxe (LARGE) [NYDeluxe] Toppings: sausage, pepperoni $20.99}.
+     *
+     * @param sb    the builder to append to
+     * @param pizza the pizza to render
+     * @return the same builder
+     */
+    public static StringBuilder appendPizza(StringBuilder sb, Pizza pizza) {
+        return appendPizza(sb, pizza, pizza.priceCents());
+    }
+
+    /**
+     * Appends one receipt line for a pizza at a given price, e.g. the price an order charged
+     * for it, see {@link Order#getLinePriceCents(int)}.
+     *
+     * @param sb         the builder to append to
+     * @param pizza      the pizza to render
+     * @param priceCents the price to show, in cents
+     * @return the same builder
+     */
+    public static StringBuilder appendPizza(StringBuilder sb, Pizza pizza, long priceCents) {
+        Size size = pizza.getSize();
+        Crust crust = pizza.getCrust();
+        sb.append(pizza.getKind().getReceiptName())
+                .append(" (").append(size == null ? "null" : size.name()).append(") ")
+                .append('[').append(crust == null ? "null" : crust.name()).append("] ")
+                .append("Toppings: ");
+        int mask = pizza.getToppingMask();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            if (bits != mask) {
+                sb.append(", ");
+            }
+            sb.append(Topping.byOrdinal(Integer.numberOfTrailingZeros(bits)).getReceiptName());
+        }
+        return Money.appendTo(sb.append(" $"), priceCents);
+    }
+
+    /**
+     * Appends the receipt for an order: its number, one line per pizza at the price the order
+     * charged for it, then the subtotal, tax and total.
+     *
+     * @param sb    the builder to append to
+     * @param order the order to render
+     * @return the same builder
+     */
+    public static StringBuilder appendOrder(StringBuilder sb, Order order) {
+        sb.append("Order #").append(order.getOrderNumber()).append('\n');
+        for (int line = 0, lines = order.getLineCount(); line < lines; line++) {
+            Pizza pizza = order.getLinePizza(line);
+            long price = order.getLinePriceCents(line);
+            for (int i = order.getLineQuantity(line); i > 0; i--) {
+                appendPizza(sb, pizza, price).append('\n');
+            }
+        }
+        long subtotal = order.getSubtotalCents();
+        long tax = order.getTaxCents();
+        Money.appendTo(sb.append("Subtotal: $"), subtotal).append('\n');
+        Money.appendTo(sb.append("Tax: $"), tax).append('\n');
+        return Money.appendTo(sb.append("Total: $"), subtotal + tax);
+    }
+}
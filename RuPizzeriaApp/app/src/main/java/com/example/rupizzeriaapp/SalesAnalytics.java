@@ -0,0 +1,299 @@
+package com.example.rupizzeriaapp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps running sales figures as orders are placed and canceled, so that questions like
+ * "how many large Meatzzas sold this hour" or "revenue by crust" are answered in constant time
+ * without scanning the order book.
+ * <p>
+ * Figures are kept per pizza kind and size, per crust and per topping, both in total and per
+ * clock hour for the last {@link #HOURS_KEPT} hours in a ring of buckets. Every counter is a
+ * {@link LongAdder}, so placements on many threads never contend on a lock. A cancellation
+ * subtracts what its placement added; if the hour it was placed in has left the ring, only the
+ * totals are corrected. Orders restored from a journal or an import were never counted, so
+ * canceling them changes nothing.
+ * </p>
+ * Pizza revenue is each pizza's price when it was added to its order, so price changes in
+ * between do not skew a cancellation; order revenue is the order's subtotal.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class SalesAnalytics implements Order.OrderListener {
+    /**
+     * The number of clock hours kept in the hourly figures.
+     */
+    public static final int HOURS_KEPT = 48;
+
+    private static final long HOUR_MILLIS = 60 * 60_000L;
+    private static final int KINDS = PizzaKind.values().length;
+    private static final int SIZES = Size.values().length;
+    private static final int CRUSTS = Crust.values().length;
+    private static final int TOPPINGS = Topping.values().length;
+
+    private final Figures totals = new Figures(-1);
+    private final AtomicReferenceArray<Figures> hours = new AtomicReferenceArray<>(HOURS_KEPT);
+
+    /**
+     * Order, pizza, crust and topping figures for one clock hour, or for all time.
+     */
+    private static final class Figures {
+        final long hour;
+        final LongAdder orders = new LongAdder();
+        final LongAdder revenue = new LongAdder();
+        final LongAdder[] pizzaCounts = adders(KINDS * SIZES);
+        final LongAdder[] pizzaRevenue = adders(KINDS * SIZES);
+        final LongAdder[] crustCounts = adders(CRUSTS);
+        final LongAdder[] crustRevenue = adders(CRUSTS);
+        final LongAdder[] toppingCounts = adders(TOPPINGS);
+
+        Figures(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    @Override
+    public void onOrderPlaced(Order order) {
+        record(order, 1);
+    }
+
+    @Override
+    public void onOrderCanceled(Order order) {
+        if (!order.isRestored()) {
+            record(order, -1);
+        }
+    }
+
+    /**
+     * Adds a placed order to the figures, or subtracts a canceled one.
+     *
+     * @param order the order
+     * @param sign  1 to add the order, -1 to subtract it
+     */
+    private void record(Order order, int sign) {
+        long hour = order.getPlacedAt() / HOUR_MILLIS;
+        Figures hourly = sign > 0 ? hourForWriting(hour) : hourForReading(hour);
+        record(order, sign, totals);
+        if (hourly != null) {
+            record(order, sign, hourly);
+        }
+    }
+
+    private static void record(Order order, int sign, Figures figures) {
+        figures.orders.add(sign);
+        figures.revenue.add(sign * order.getSubtotalCents());
+        for (int line = 0, lines = order.getLineCount(); line < lines; line++) {
+            Pizza pizza = order.getLinePizza(line);
+            long count = (long) sign * order.getLineQuantity(line);
+            long price = count * order.getLinePriceCents(line);
+            if (pizza.getSize() != null) {
+                int index = index(pizza.getKind(), pizza.getSize());
+                figures.pizzaCounts[index].add(count);
+                figures.pizzaRevenue[index].add(price);
+            }
+            if (pizza.getCrust() != null) {
+                figures.crustCounts[pizza.getCrust().ordinal()].add(count);
+                figures.crustRevenue[pizza.getCrust().ordinal()].add(price);
+            }
+            for (int bits = pizza.getToppingMask(); bits != 0; bits &= bits - 1) {
+                figures.toppingCounts[Integer.numberOfTrailingZeros(bits)].add(count);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of orders placed and not canceled.
+     *
+     * @return the order count
+     */
+    public long getOrderCount() {
+        return totals.orders.sum();
+    }
+
+    /**
+     * Gets the revenue, before tax, of the orders placed and not canceled.
+     *
+     * @return the revenue in cents
+     */
+    public long getRevenueCents() {
+        return totals.revenue.sum();
+    }
+
+    /**
+     * Gets the number of pizzas of a kind and size sold.
+     *
+     * @param kind the kind of pizza
+     * @param size the size of pizza
+     * @return the pizza count
+     */
+    public long getPizzaCount(PizzaKind kind, Size size) {
+        return totals.pizzaCounts[index(kind, size)].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas of a kind and size.
+     *
+     * @param kind the kind of pizza
+     * @param size the size of pizza
+     * @return the revenue in cents
+     */
+    public long getPizzaRevenueCents(PizzaKind kind, Size size) {
+        return totals.pizzaRevenue[index(kind, size)].sum();
+    }
+
+    /**
+     * Gets the number of pizzas with a crust sold.
+     *
+     * @param crust the crust
+     * @return the pizza count
+     */
+    public long getPizzaCount(Crust crust) {
+        return totals.crustCounts[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas with a crust.
+     *
+     * @param crust the crust
+     * @return the revenue in cents
+     */
+    public long getRevenueCents(Crust crust) {
+        return totals.crustRevenue[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold with a topping.
+     *
+     * @param topping the topping
+     * @return the pizza count
+     */
+    public long getPizzaCount(Topping topping) {
+        return totals.toppingCounts[topping.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of orders placed in the clock hour holding a time.
+     *
+     * @param time a time in the hour, in milliseconds since the epoch
+     * @return the order count, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyOrderCount(long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.orders.sum();
+    }
+
+    /**
+     * Gets the revenue, before tax, of the orders placed in the clock hour holding a time.
+     *
+     * @param time a time in the hour, in milliseconds since the epoch
+     * @return the revenue in cents, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyRevenueCents(long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.revenue.sum();
+    }
+
+    /**
+     * Gets the number of pizzas of a kind and size sold in the clock hour holding a time.
+     *
+     * @param kind the kind of pizza
+     * @param size the size of pizza
+     * @param time a time in the hour, in milliseconds since the epoch
+     * @return the pizza count, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyPizzaCount(PizzaKind kind, Size size, long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.pizzaCounts[index(kind, size)].sum();
+    }
+
+    /**
+     * Gets the number of pizzas with a crust sold in the clock hour holding a time.
+     *
+     * @param crust the crust
+     * @param time  a time in the hour, in milliseconds since the epoch
+     * @return the pizza count, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyPizzaCount(Crust crust, long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.crustCounts[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue from pizzas with a crust sold in the clock hour holding a time.
+     *
+     * @param crust the crust
+     * @param time  a time in the hour, in milliseconds since the epoch
+     * @return the revenue in cents, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyRevenueCents(Crust crust, long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.crustRevenue[crust.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of pizzas sold with a topping in the clock hour holding a time.
+     *
+     * @param topping the topping
+     * @param time    a time in the hour, in milliseconds since the epoch
+     * @return the pizza count, or 0 if the hour is older than {@link #HOURS_KEPT} hours
+     */
+    public long getHourlyPizzaCount(Topping topping, long time) {
+        Figures hourly = hourForReading(time / HOUR_MILLIS);
+        return hourly == null ? 0 : hourly.toppingCounts[topping.ordinal()].sum();
+    }
+
+    /**
+     * Gets the revenue, before tax, of the orders placed in the last hours.
+     *
+     * @param now   the current time, in milliseconds since the epoch
+     * @param hours the number of clock hours to add up, counting the current one, at most {@link #HOURS_KEPT}
+     * @return the revenue in cents
+     */
+    public long getRecentRevenueCents(long now, int hours) {
+        long current = now / HOUR_MILLIS;
+        long revenue = 0;
+        for (int i = 0; i < Math.min(hours, HOURS_KEPT); i++) {
+            Figures hourly = hourForReading(current - i);
+            if (hourly != null) {
+                revenue += hourly.revenue.sum();
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Finds the bucket of an hour, replacing the older hour that shares its slot if needed.
+     *
+     * @return the bucket, or null if the hour has already left the ring
+     */
+    private Figures hourForWriting(long hour) {
+        int slot = (int) Math.floorMod(hour, (long) HOURS_KEPT);
+        while (true) {
+            Figures current = hours.get(slot);
+            if (current != null && current.hour >= hour) {
+                return current.hour == hour ? current : null;
+            }
+            Figures fresh = new Figures(hour);
+            if (hours.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private Figures hourForReading(long hour) {
+        Figures current = hours.get((int) Math.floorMod(hour, (long) HOURS_KEPT));
+        return current != null && current.hour == hour ? current : null;
+    }
+
+    private static int index(PizzaKind kind, Size size) {
+        return kind.ordinal() * SIZES + size.ordinal();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
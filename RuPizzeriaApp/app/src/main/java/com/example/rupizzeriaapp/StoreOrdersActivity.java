@@ -3,33 +3,47 @@ package com.example.rupizzeriaapp;
 import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.os.Bundle;
-import android.view.View;
 import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.widget.Button;
 import android.widget.ArrayAdapter;
 import android.widget.EditText;
 import android.widget.ListView;
-import android.widget.Spinner;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Activity to manage store orders, including viewing, canceling, and exporting orders.
+ * The order history is a RecyclerView over an {@link OrderHistory} snapshot, so only the
+ * visible rows are rendered, and pizza details are built only for the selected order.
+ * Exporting writes the order book as a binary file and a CSV file on a background thread,
+ * along with the {@link Metrics} recorded so far.
  */
 public class StoreOrdersActivity extends AppCompatActivity {
+    private static final String METRICS_TAG = "RUPizzeriaMetrics";
 
-    private Spinner orderNumberSpinner;
+    private RecyclerView orderHistoryList;
     private EditText orderTotalDisplay;
     private ListView orderDetailsList;
     private Button cancelOrderButton;
+    private Button exportOrdersButton;
 
-    private List<Order> storeOrdersList;
-    private ArrayAdapter<Order> orderAdapter;
+    private OrderHistory orderHistory;
+    private OrderHistoryAdapter orderAdapter;
     private ArrayAdapter<String> orderDetailsAdapter;
+    private final StringBuilder receipt = new StringBuilder();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     /**
      * Called when the activity is created.
@@ -43,16 +57,18 @@ public class StoreOrdersActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_store_orders);
 
-        orderNumberSpinner = findViewById(R.id.order_number_spinner);
+        orderHistoryList = findViewById(R.id.order_history_list);
         orderTotalDisplay = findViewById(R.id.order_total_display);
         orderDetailsList = findViewById(R.id.order_details_list);
         cancelOrderButton = findViewById(R.id.cancel_order_button);
+        exportOrdersButton = findViewById(R.id.export_orders_button);
 
         setupBackButton();
 
-        storeOrdersList = new ArrayList<>(Order.getAllOrders());
-        setupOrderNumberSpinner();
+        orderHistory = OrderHistory.snapshot();
+        setupOrderHistoryList();
         setupCancelOrderButton();
+        exportOrdersButton.setOnClickListener(v -> exportOrders());
 
         cancelOrderButton.setEnabled(false);
     }
@@ -70,25 +86,14 @@ public class StoreOrdersActivity extends AppCompatActivity {
     }
 
     /**
-     * Sets up the spinner to display order numbers.
+     * Sets up the list of placed orders.
      */
-    private void setupOrderNumberSpinner() {
-        orderAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, storeOrdersList);
-        orderAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        orderNumberSpinner.setAdapter(orderAdapter);
-
-        orderNumberSpinner.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
-            @Override
-            public void onItemSelected(android.widget.AdapterView<?> parent, View view, int position, long id) {
-                Order selectedOrder = storeOrdersList.get(position);
-                displaySelectedOrder(selectedOrder);
-            }
-
-            @Override
-            public void onNothingSelected(android.widget.AdapterView<?> parent) {
-                clearOrderDetails();
-            }
-        });
+    private void setupOrderHistoryList() {
+        orderAdapter = new OrderHistoryAdapter(orderHistory,
+                position -> displaySelectedOrder(orderHistory.getOrder(position)));
+        orderHistoryList.setLayoutManager(new LinearLayoutManager(this));
+        orderHistoryList.setHasFixedSize(true);
+        orderHistoryList.setAdapter(orderAdapter);
     }
 
     /**
@@ -99,14 +104,17 @@ public class StoreOrdersActivity extends AppCompatActivity {
     private void displaySelectedOrder(Order selectedOrder) {
         if (selectedOrder != null) {
             List<String> pizzaDetails = new ArrayList<>();
-            for (Pizza pizza : selectedOrder.getPizzas()) {
-                pizzaDetails.add(pizza.toString());
+            for (int line = 0, lines = selectedOrder.getLineCount(); line < lines; line++) {
+                receipt.setLength(0);
+                String details = ReceiptRenderer.appendPizza(receipt, selectedOrder.getLinePizza(line),
+                        selectedOrder.getLinePriceCents(line)).toString();
+                pizzaDetails.addAll(Collections.nCopies(selectedOrder.getLineQuantity(line), details));
             }
             orderDetailsAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, pizzaDetails);
             orderDetailsList.setAdapter(orderDetailsAdapter);
 
-            double totalWithTax = selectedOrder.getTotal();
-            orderTotalDisplay.setText(String.format("$%.2f", totalWithTax));
+            long totalWithTax = selectedOrder.getTotalCents();
+            orderTotalDisplay.setText("$" + Money.format(totalWithTax));
 
             cancelOrderButton.setEnabled(true);
         } else {
@@ -130,20 +138,25 @@ public class StoreOrdersActivity extends AppCompatActivity {
      */
     private void setupCancelOrderButton() {
         cancelOrderButton.setOnClickListener(v -> {
-            int selectedPosition = orderNumberSpinner.getSelectedItemPosition();
-            if (selectedPosition >= 0) {
+            int selectedPosition = orderAdapter.getSelectedPosition();
+            if (selectedPosition != RecyclerView.NO_POSITION) {
                 new AlertDialog.Builder(this)
                         .setTitle("Cancel Order")
                         .setMessage("Are you sure you want to cancel this order?")
                         .setPositiveButton("Yes", (dialog, which) -> {
-                            Order selectedOrder = storeOrdersList.get(selectedPosition);
+                            Order selectedOrder = orderHistory.getOrder(selectedPosition);
 
-                            Order.getAllOrders().remove(selectedOrder);
-                            storeOrdersList.remove(selectedOrder);
-                            orderAdapter.notifyDataSetChanged();
+                            // Either way the order has left the order book, e.g. canceled or archived elsewhere
+                            boolean canceled = selectedOrder.cancelOrder();
+                            orderAdapter.removeOrder(selectedPosition);
                             clearOrderDetails();
 
-                            Toast.makeText(this, "Order canceled successfully.", Toast.LENGTH_SHORT).show();
+                            if (canceled) {
+                                Toast.makeText(this, "Order canceled successfully.", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(this, "Order could not be canceled; it is no longer open.",
+                                        Toast.LENGTH_LONG).show();
+                            }
                         })
                         .setNegativeButton("No", null)
                         .show();
@@ -152,4 +165,62 @@ public class StoreOrdersActivity extends AppCompatActivity {
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Exports the store orders to the app's files directory on a background thread,
+     * then reports where they were written.
+     */
+    private void exportOrders() {
+        exportOrdersButton.setEnabled(false);
+        File external = getExternalFilesDir(null);
+        File directory = external != null ? external : getFilesDir();
+        List<Order> orders = Order.getAllOrders();
+        Thread exporter = new Thread(() -> {
+            String message;
+            try {
+                OrderExport.exportBinary(new File(directory, "orders-export.bin"), orders);
+                OrderExport.exportCsv(new File(directory, "orders-export.csv"), orders);
+                message = "Exported " + orders.size() + " orders to " + directory.getPath();
+            } catch (IOException e) {
+                message = "Could not export orders: " + e.getMessage();
+            }
+            // The metrics are diagnostics only, so failing to write them does not fail the export
+            try {
+                dumpMetrics(new File(directory, "metrics.txt"));
+            } catch (IOException | RuntimeException e) {
+                Log.w(METRICS_TAG, "Could not write metrics", e);
+            }
+            String result = message;
+            mainHandler.post(() -> onExportComplete(result));
+        }, "order-export");
+        exporter.start();
+    }
+
+    /**
+     * Writes the hot-path metrics recorded so far to a file and to logcat, so the tablet's
+     * performance travels with its end-of-day export.
+     *
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    private void dumpMetrics(File file) throws IOException {
+        Metrics.Snapshot snapshot = Metrics.snapshot();
+        snapshot.writeTo(file);
+        for (String line : snapshot.toLines()) {
+            Log.i(METRICS_TAG, line);
+        }
+    }
+
+    /**
+     * Called on the main thread once an export has finished.
+     *
+     * @param message The message to show.
+     */
+    private void onExportComplete(String message) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        exportOrdersButton.setEnabled(true);
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+    }
+}
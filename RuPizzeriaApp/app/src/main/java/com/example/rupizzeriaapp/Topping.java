@@ -1,6 +1,9 @@
 package com.example.rupizzeriaapp;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Enum representing the various toppings available for pizzas.
@@ -23,33 +26,76 @@ public enum Topping {
     JALAPENOS,
     PLAIN;
 
+    private static final Topping[] VALUES = values();
+
+    private final String receiptName = name().toLowerCase().replace('_', ' ');
+
+    /**
+     * Retrieves the name printed on receipts, e.g. "green pepper".
+     *
+     * @return the receipt name, computed once per topping
+     */
+    public String getReceiptName() {
+        return receiptName;
+    }
+
+    /**
+     * Retrieves the single-bit mask of this topping within a topping bitmask.
+     *
+     * @return {@code 1 << ordinal()}
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Retrieves the topping with the given ordinal without copying {@link #values()}.
+     *
+     * @param ordinal the ordinal of the topping
+     * @return the topping
+     */
+    public static Topping byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Builds a topping bitmask from a collection of toppings.
+     *
+     * @param toppings the toppings to include
+     * @return a bitmask with the bit of each topping set
+     */
+    public static int maskOf(Collection<Topping> toppings) {
+        int mask = 0;
+        for (Topping topping : toppings) {
+            mask |= topping.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Expands a topping bitmask into a list of toppings, in declaration order.
+     *
+     * @param mask the topping bitmask
+     * @return a new {@link List} holding the toppings whose bits are set
+     */
+    public static List<Topping> fromMask(int mask) {
+        List<Topping> toppings = new ArrayList<>(Integer.bitCount(mask));
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            toppings.add(VALUES[Integer.numberOfTrailingZeros(bits)]);
+        }
+        return toppings;
+    }
 
     /**
      * Retrieves a list of toppings based on a predefined pizza type.
+     * Adapter over {@link PizzaKind#getPresetToppings()} for callers that only have a display name.
      *
      * @param type the name of the pizza type (e.g., "Deluxe", "BBQ Chicken", "Meatzza")
-     * @return an {@link ArrayList} of {@link Topping} objects corresponding to the pizza type,
+     * @return an immutable, shared {@link List} of {@link Topping} objects corresponding to the pizza type,
      *         or an empty list if the type is unrecognized.
      */
-    public static ArrayList<Topping> getToppings(String type){
-        ArrayList<Topping> toppings = new ArrayList<>();
-        if (type.equalsIgnoreCase("Deluxe")){
-            toppings.add(SAUSAGE);
-            toppings.add(PEPPERONI);
-            toppings.add(GREEN_PEPPER);
-            toppings.add(ONION);
-            toppings.add(MUSHROOM);
-        } else if (type.equalsIgnoreCase("BBQ Chicken")){
-            toppings.add(BBQ_CHICKEN);
-            toppings.add(GREEN_PEPPER);
-            toppings.add(PROVOLONE);
-            toppings.add(CHEDDAR);
-        } else if (type.equalsIgnoreCase("Meatzza")){
-            toppings.add(SAUSAGE);
-            toppings.add(PEPPERONI);
-            toppings.add(BEEF);
-            toppings.add(HAM);
-        }
-        return toppings;
+    public static List<Topping> getToppings(String type){
+        PizzaKind kind = PizzaKind.fromDisplayName(type);
+        return kind == null ? Collections.<Topping>emptyList() : kind.getPresetToppings();
     }
 }
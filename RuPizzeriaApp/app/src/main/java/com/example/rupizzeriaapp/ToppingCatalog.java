@@ -0,0 +1,45 @@
+package com.example.rupizzeriaapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The toppings offered on the pizza builder screen, in the order the topping grid shows them.
+ * The catalogue is built once per process and shared by every style; each screen gets its own
+ * {@link ToppingItem} list, since items carry the screen's selection state.
+ */
+final class ToppingCatalog {
+    private static final Topping[] TOPPINGS = {
+            Topping.SAUSAGE, Topping.PEPPERONI, Topping.GREEN_PEPPER, Topping.ONION,
+            Topping.MUSHROOM, Topping.BBQ_CHICKEN, Topping.PROVOLONE, Topping.CHEDDAR,
+            Topping.BEEF, Topping.HAM, Topping.JALAPENOS, Topping.PINEAPPLES, Topping.OLIVES
+    };
+    private static final String[] NAMES = {
+            "Sausage", "Pepperoni", "Green Pepper", "Onion",
+            "Mushroom", "BBQ Chicken", "Provolone", "Cheddar",
+            "Beef", "Ham", "Jalapenos", "Pineapples", "Olives"
+    };
+    private static final int[] IMAGES = {
+            R.drawable.topping_sausage, R.drawable.topping_pepperoni, R.drawable.topping_green_pepper,
+            R.drawable.topping_onion, R.drawable.topping_mushroom, R.drawable.topping_bbq_chicken,
+            R.drawable.topping_provolone, R.drawable.topping_cheddar, R.drawable.topping_beef,
+            R.drawable.topping_ham, R.drawable.topping_jalapenos, R.drawable.topping_pineapple,
+            R.drawable.topping_olives
+    };
+
+    private ToppingCatalog() {
+    }
+
+    /**
+     * Creates a list of topping items for a screen, none of them selected.
+     *
+     * @return A new list of {@link ToppingItem} objects, one per catalogue topping.
+     */
+    static List<ToppingItem> newToppingItems() {
+        List<ToppingItem> toppingItems = new ArrayList<>(TOPPINGS.length);
+        for (int i = 0; i < TOPPINGS.length; i++) {
+            toppingItems.add(new ToppingItem(TOPPINGS[i], NAMES[i], IMAGES[i]));
+        }
+        return toppingItems;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.rupizzeriaapp;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tracks the portions of each {@link Topping} left in stock, so that orders cannot be placed
+ * once a topping has run out.
+ * <p>
+ * Every pizza uses one portion of each of its toppings. Stock is one counter per topping, indexed
+ * by ordinal, and reserving an order takes its portions counter by counter with compare-and-set.
+ * If any topping falls short, the portions already taken are put back and the order is refused,
+ * so concurrent orders never oversell and never wait on a lock. Toppings whose stock was never
+ * set are not tracked and never run out.
+ * </p>
+ * Listeners are told when a reservation takes a topping down to its low-stock threshold.
+ * @author Sahil Patel, Shreyas Santosh
+ */
+public class ToppingInventory {
+    private static final int UNTRACKED = -1;
+    private static final int TOPPINGS = Topping.values().length;
+
+    private final AtomicIntegerArray portions = new AtomicIntegerArray(TOPPINGS);
+    private final AtomicIntegerArray lowStockThresholds = new AtomicIntegerArray(TOPPINGS);
+    private final CopyOnWriteArrayList<LowStockListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives low-stock warnings.
+     */
+    public interface LowStockListener {
+        /**
+         * Called once each time a reservation takes a topping from above its low-stock threshold
+         * to at or below it, on the thread that placed the order.
+         *
+         * @param topping   the topping running low
+         * @param remaining the portions left
+         */
+        void onLowStock(Topping topping, int remaining);
+    }
+
+    /**
+     * Creates an inventory that does not track any topping yet.
+     */
+    public ToppingInventory() {
+        for (int i = 0; i < TOPPINGS; i++) {
+            portions.set(i, UNTRACKED);
+        }
+    }
+
+    /**
+     * Sets the portions of a topping in stock and starts tracking it.
+     *
+     * @param topping  the topping
+     * @param portions the portions in stock
+     * @throws IllegalArgumentException if portions is negative
+     */
+    public void setStock(Topping topping, int portions) {
+        if (portions < 0) {
+            throw new IllegalArgumentException("Stock cannot be negative: " + portions);
+        }
+        this.portions.set(topping.ordinal(), portions);
+    }
+
+    /**
+     * Adds portions of a topping to the stock. Tracking starts from zero if the topping was not tracked.
+     *
+     * @param topping  the topping
+     * @param portions the portions delivered
+     */
+    public void restock(Topping topping, int portions) {
+        int index = topping.ordinal();
+        while (true) {
+            int current = this.portions.get(index);
+            int updated = Math.max(current, 0) + portions;
+            if (this.portions.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the portions of a topping in stock.
+     *
+     * @param topping the topping
+     * @return the portions left, or -1 if the topping is not tracked
+     */
+    public int getStock(Topping topping) {
+        return portions.get(topping.ordinal());
+    }
+
+    /**
+     * Sets the stock level at or below which listeners are warned about a topping.
+     *
+     * @param topping   the topping
+     * @param threshold the low-stock threshold in portions, 0 to warn only when it runs out
+     */
+    public void setLowStockThreshold(Topping topping, int threshold) {
+        lowStockThresholds.set(topping.ordinal(), threshold);
+    }
+
+    /**
+     * Takes the portions an order needs out of stock, all or nothing. The portions taken are
+     * recorded on the order, so {@link #release(Order)} puts back exactly those.
+     *
+     * @param order the order
+     * @return true if every topping was reserved, false if any was short and nothing was taken
+     */
+    public boolean reserve(Order order) {
+        int[] needed = portionsNeeded(order);
+        int[] remaining = new int[TOPPINGS];
+        for (int i = 0; i < TOPPINGS; i++) {
+            if (needed[i] == 0) {
+                continue;
+            }
+            remaining[i] = take(i, needed[i]);
+            if (remaining[i] == UNTRACKED) {
+                needed[i] = 0;
+            } else if (remaining[i] < 0) {
+                for (int j = 0; j < i; j++) {
+                    if (needed[j] != 0) {
+                        portions.addAndGet(j, needed[j]);
+                    }
+                }
+                return false;
+            }
+        }
+        order.setReservation(this, needed);
+        if (!listeners.isEmpty()) {
+            for (int i = 0; i < TOPPINGS; i++) {
+                int threshold = lowStockThresholds.get(i);
+                if (needed[i] != 0 && remaining[i] <= threshold && remaining[i] + needed[i] > threshold) {
+                    for (LowStockListener listener : listeners) {
+                        try {
+                            listener.onLowStock(Topping.byOrdinal(i), remaining[i]);
+                        } catch (RuntimeException e) {
+                            Metrics.increment(Metrics.Counter.LISTENER_FAILURES);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Puts the portions reserved for a canceled order back into stock. Only the portions recorded
+     * by {@link #reserve(Order)} are returned, once, even if the order or the prices were
+     * changed in between.
+     *
+     * @param order the order
+     */
+    public void release(Order order) {
+        int[] taken = order.takeReservation(this);
+        if (taken == null) {
+            return;
+        }
+        for (int i = 0; i < TOPPINGS; i++) {
+            if (taken[i] != 0 && portions.get(i) != UNTRACKED) {
+                portions.addAndGet(i, taken[i]);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener to be warned about toppings running low.
+     *
+     * @param listener the listener to add
+     */
+    public void addLowStockListener(LowStockListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addLowStockListener(LowStockListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeLowStockListener(LowStockListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Takes portions of one topping if enough are left.
+     *
+     * @return the portions left after taking, {@link #UNTRACKED} if the topping is not tracked,
+     * or a value below -1 if there were not enough
+     */
+    private int take(int index, int count) {
+        while (true) {
+            int current = portions.get(index);
+            if (current == UNTRACKED) {
+                return UNTRACKED;
+            }
+            if (current < count) {
+                return Integer.MIN_VALUE;
+            }
+            if (portions.compareAndSet(index, current, current - count)) {
+                return current - count;
+            }
+        }
+    }
+
+    private static int[] portionsNeeded(Order order) {
+        int[] needed = new int[TOPPINGS];
+        for (int line = 0, lines = order.getLineCount(); line < lines; line++) {
+            int quantity = order.getLineQuantity(line);
+            for (int bits = order.getLinePizza(line).getToppingMask(); bits != 0; bits &= bits - 1) {
+                needed[Integer.numberOfTrailingZeros(bits)] += quantity;
+            }
+        }
+        return needed;
+    }
+}
@@ -16,16 +16,27 @@ import java.util.List;
 /**
  * Adapter for displaying and managing pizza topping selections in a RecyclerView.
  * Handles both predefined pizza toppings and "Build Your Own" topping selections.
+ * The number of selected toppings is maintained as selections change, and every change
+ * rebinds only the rows whose displayed state changed, with a payload so the rows keep
+ * their image and name.
  */
 public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.ToppingViewHolder> {
     private List<ToppingItem> toppingItems;
     private OnToppingSelectedListener listener;
     private boolean toppingSelectionEnabled = true;
-    private static final int MAX_TOPPINGS = 7;
     private boolean isPredefinedPizza;
-    private List<Topping> predefinedToppings;
+    private int predefinedToppingMask;
+    private int selectedCount;
     private Handler mainHandler = new Handler(Looper.getMainLooper());
 
+    private static final Object PAYLOAD_STATE = new Object();
+    private static final int ROW_SELECTED = 0;
+    private static final int ROW_AVAILABLE = 1;
+    private static final int ROW_DISABLED = 2;
+    private static final int ROW_FULL = 3;
+    private static final int ROW_PRESET = 4;
+    private static final int ROW_NOT_PRESET = 5;
+
     /**
      * Listener interface for reacting to topping selection changes.
      */
@@ -50,6 +61,11 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
         this.toppingItems = toppingItems;
         this.listener = listener;
         this.isPredefinedPizza = isPredefinedPizza;
+        for (ToppingItem toppingItem : toppingItems) {
+            if (toppingItem.isSelected) {
+                selectedCount++;
+            }
+        }
     }
 
     @NonNull
@@ -66,6 +82,17 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
         holder.bind(toppingItem);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull ToppingViewHolder holder, int position, @NonNull List<Object> payloads) {
+        long start = Metrics.start();
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.bindState(toppingItems.get(position));
+        }
+        Metrics.stop(Metrics.Probe.TOPPING_BIND, start);
+    }
+
     @Override
     public int getItemCount() {
         return toppingItems.size();
@@ -77,33 +104,124 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
      * @param enabled True to enable topping selection; false to disable.
      */
     public void setToppingSelectionEnabled(boolean enabled) {
+        if (toppingSelectionEnabled == enabled) {
+            return;
+        }
+        int[] before = rowStates();
         this.toppingSelectionEnabled = enabled;
-        mainHandler.post(this::notifyDataSetChanged);
+        postChangedRows(before);
     }
 
     /**
      * Sets the toppings that should be preselected (for predefined pizzas).
      *
-     * @param preselectedToppings List of preselected {@link Topping} objects.
+     * @param preselectedToppingMask Bitmask of the preselected {@link Topping} objects.
      */
-    public void setPreselectedToppings(List<Topping> preselectedToppings) {
-        this.predefinedToppings = preselectedToppings;
+    public void setPreselectedToppings(int preselectedToppingMask) {
+        int[] before = rowStates();
+        this.predefinedToppingMask = preselectedToppingMask;
 
+        selectedCount = 0;
         for (ToppingItem toppingItem : toppingItems) {
-            toppingItem.isSelected = predefinedToppings.contains(toppingItem.topping);
+            toppingItem.isSelected = isPredefinedTopping(toppingItem);
+            if (toppingItem.isSelected) {
+                selectedCount++;
+            }
         }
 
-        mainHandler.post(this::notifyDataSetChanged);
+        postChangedRows(before);
     }
 
     /**
      * Resets all topping selections to unselected.
      */
     public void resetToppingSelections() {
+        int[] before = rowStates();
         for (ToppingItem toppingItem : toppingItems) {
             toppingItem.isSelected = false;
         }
-        mainHandler.post(this::notifyDataSetChanged);
+        selectedCount = 0;
+        postChangedRows(before);
+    }
+
+    /**
+     * Selects or deselects a topping chosen by the user and rebinds the rows whose state changed:
+     * the toggled row, plus the unselected rows when the selection reaches or leaves the maximum.
+     *
+     * @param toppingItem The topping item being toggled.
+     * @param selected    True to select the topping, false to deselect it.
+     */
+    private void setSelected(ToppingItem toppingItem, boolean selected) {
+        int[] before = rowStates();
+        toppingItem.isSelected = selected;
+        selectedCount += selected ? 1 : -1;
+        notifyChangedRows(before);
+    }
+
+    /**
+     * Captures the displayed state of every row, to find the rows a change affects.
+     *
+     * @return The state of each row, indexed by position.
+     */
+    private int[] rowStates() {
+        int[] states = new int[toppingItems.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = rowState(toppingItems.get(i));
+        }
+        return states;
+    }
+
+    /**
+     * Determines how a row is displayed; two rows with the same state look the same apart from
+     * their image and name.
+     *
+     * @param toppingItem The topping item shown by the row.
+     * @return One of the {@code ROW_} states.
+     */
+    private int rowState(ToppingItem toppingItem) {
+        if (isPredefinedPizza) {
+            return isPredefinedTopping(toppingItem) ? ROW_PRESET : ROW_NOT_PRESET;
+        }
+        if (toppingItem.isSelected) {
+            return ROW_SELECTED;
+        }
+        if (selectedCount >= Pizza.MAX_TOPPINGS) {
+            return ROW_FULL;
+        }
+        return toppingSelectionEnabled ? ROW_AVAILABLE : ROW_DISABLED;
+    }
+
+    /**
+     * Notifies the rows whose state differs from a previous capture.
+     *
+     * @param before The row states captured before the change.
+     */
+    private void notifyChangedRows(int[] before) {
+        for (int i = 0; i < before.length; i++) {
+            if (rowState(toppingItems.get(i)) != before[i]) {
+                notifyItemChanged(i, PAYLOAD_STATE);
+            }
+        }
+    }
+
+    /**
+     * Notifies the rows whose state differs from a previous capture on the next frame, since the
+     * activity may change the selection while the RecyclerView is computing its layout.
+     *
+     * @param before The row states captured before the change.
+     */
+    private void postChangedRows(int[] before) {
+        mainHandler.post(() -> notifyChangedRows(before));
+    }
+
+    /**
+     * Checks whether a topping is one of the preselected toppings of a predefined pizza.
+     *
+     * @param toppingItem The topping item to check.
+     * @return True if the topping is preselected, false otherwise.
+     */
+    private boolean isPredefinedTopping(ToppingItem toppingItem) {
+        return (predefinedToppingMask & toppingItem.topping.mask()) != 0;
     }
 
     /**
@@ -134,16 +252,25 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
          * @param toppingItem The topping item to bind to this view.
          */
         public void bind(ToppingItem toppingItem) {
-            toppingImage.setImageResource(toppingItem.imageResourceId);
+            ImageLoader.get(itemView.getContext()).load(toppingImage, toppingItem.imageResourceId);
             toppingName.setText(toppingItem.name);
+            bindState(toppingItem);
+        }
 
+        /**
+         * Updates the checkbox and status of the view to reflect the topping's state,
+         * leaving the image and name as they are.
+         *
+         * @param toppingItem The topping item bound to this view.
+         */
+        public void bindState(ToppingItem toppingItem) {
             if (isPredefinedPizza) {
-                toppingCheckBox.setChecked(predefinedToppings.contains(toppingItem.topping));
+                toppingCheckBox.setChecked(isPredefinedTopping(toppingItem));
                 toppingCheckBox.setEnabled(false);
 
                 toppingCheckBox.setOnTouchListener((v, event) -> true); // Block all touch events
 
-                if (predefinedToppings.contains(toppingItem.topping)) {
+                if (isPredefinedTopping(toppingItem)) {
                     toppingStatus.setVisibility(View.VISIBLE);
                     toppingStatus.setText("Preset Topping");
                 } else {
@@ -156,7 +283,7 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
         }
 
         private void handlePredefinedPizzaToppings(ToppingItem toppingItem) {
-            boolean isPredefinedTopping = predefinedToppings.contains(toppingItem.topping);
+            boolean isPredefinedTopping = isPredefinedTopping(toppingItem);
 
             toppingCheckBox.setChecked(isPredefinedTopping);
 
@@ -180,11 +307,11 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
 
         private void handleBuildYourOwnToppings(ToppingItem toppingItem) {
             if (isPredefinedPizza) {
-                toppingCheckBox.setChecked(predefinedToppings.contains(toppingItem.topping));
+                toppingCheckBox.setChecked(isPredefinedTopping(toppingItem));
                 toppingCheckBox.setEnabled(false);
                 toppingCheckBox.setOnTouchListener((v, event) -> true);
 
-                if (predefinedToppings.contains(toppingItem.topping)) {
+                if (isPredefinedTopping(toppingItem)) {
                     toppingStatus.setVisibility(View.VISIBLE);
                     toppingStatus.setText("Preset Topping");
                 } else {
@@ -197,15 +324,13 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
             toppingCheckBox.setOnCheckedChangeListener(null);
             toppingCheckBox.setChecked(toppingItem.isSelected);
 
-            int selectedCount = getSelectedToppingsCount();
-
             if (toppingItem.isSelected) {
                 toppingCheckBox.setEnabled(true);
                 toppingCheckBox.setAlpha(1.0f);
                 toppingStatus.setVisibility(View.VISIBLE);
                 toppingStatus.setText("Selected Topping");
             }
-            else if (selectedCount < MAX_TOPPINGS) {
+            else if (selectedCount < Pizza.MAX_TOPPINGS) {
                 toppingCheckBox.setEnabled(toppingSelectionEnabled);
                 toppingCheckBox.setAlpha(toppingSelectionEnabled ? 1.0f : 0.5f);
                 toppingStatus.setVisibility(View.GONE);
@@ -219,16 +344,14 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
 
             toppingCheckBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
                 if (toppingItem.isSelected) {
-                    toppingItem.isSelected = false;
+                    setSelected(toppingItem, false);
                     listener.onToppingSelected(toppingItem, false);
-                    notifyDataSetChanged();
                     return;
                 }
 
-                if (getSelectedToppingsCount() < MAX_TOPPINGS) {
-                    toppingItem.isSelected = true;
+                if (selectedCount < Pizza.MAX_TOPPINGS) {
+                    setSelected(toppingItem, true);
                     listener.onToppingSelected(toppingItem, true);
-                    notifyDataSetChanged();
                 } else {
                     buttonView.setChecked(false);
                     Toast.makeText(buttonView.getContext(),
@@ -237,15 +360,5 @@ public class ToppingsAdapter extends RecyclerView.Adapter<ToppingsAdapter.Toppin
                 }
             });
         }
-
-        private int getSelectedToppingsCount() {
-            int count = 0;
-            for (ToppingItem item : toppingItems) {
-                if (item.isSelected) {
-                    count++;
-                }
-            }
-            return count;
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests scheduling the pizzas of placed orders across ovens.
+ */
+public class KitchenSchedulerTest {
+    private static final long MINUTE = 60_000L;
+
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    @Test
+    public void pizzasWithLessSlack_goIntoTheOvenFirst() {
+        KitchenScheduler kitchen = new KitchenScheduler(1, 45 * MINUTE);
+        Order order = new Order();
+        order.addPizza(new NYPizza().createBBQChicken(Size.SMALL));
+        order.addPizza(new ChicagoPizza().createDeluxe(Size.SMALL));
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.SMALL));
+        kitchen.submit(order, 0);
+
+        List<KitchenScheduler.Ticket> started = new ArrayList<>();
+        for (long now = kitchen.nextDispatchAt(); now >= 0; now = kitchen.nextDispatchAt()) {
+            started.addAll(kitchen.dispatch(now));
+        }
+
+        assertEquals(3, started.size());
+        assertEquals(Crust.ChicagoMeatzza, started.get(0).getPizza().getCrust());
+        assertEquals(Crust.ChicagoDeluxe, started.get(1).getPizza().getCrust());
+        assertEquals(Crust.NYBBQChicken, started.get(2).getPizza().getCrust());
+        assertEquals(0, started.get(0).getStartAt());
+        assertEquals(30 * MINUTE, started.get(1).getStartAt());
+        assertEquals(55 * MINUTE, started.get(2).getStartAt());
+        assertEquals(17 * MINUTE, started.get(2).getLatenessMillis());
+    }
+
+    @Test
+    public void freeOvens_areFilledAndCanceledOrdersDropped() {
+        KitchenScheduler kitchen = new KitchenScheduler(2, 45 * MINUTE);
+        Order kept = new Order();
+        kept.addPizza(new NYPizza().createDeluxe(Size.LARGE));
+        kept.addPizza(new NYPizza().createMeatzza(Size.LARGE));
+        kept.addPizza(new NYPizza().createBBQChicken(Size.LARGE));
+        Order canceled = new Order();
+        canceled.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        assertTrue(canceled.placeOrder());
+        kitchen.submit(canceled, 0);
+        kitchen.submit(kept, 0);
+        assertTrue(canceled.cancelOrder());
+        assertEquals(4, kitchen.getWaitingCount());
+
+        List<KitchenScheduler.Ticket> first = kitchen.dispatch(0);
+        assertEquals(2, first.size());
+        assertNotEquals(first.get(0).getOven(), first.get(1).getOven());
+        for (KitchenScheduler.Ticket ticket : first) {
+            assertSame(kept, ticket.getOrder());
+        }
+        assertEquals(1, kitchen.getWaitingCount());
+        assertEquals(10 * MINUTE, kitchen.nextDispatchAt());
+        assertEquals(1, kitchen.dispatch(10 * MINUTE).size());
+        assertEquals(-1, kitchen.nextDispatchAt());
+        assertEquals(3, kitchen.getStartedCount());
+    }
+
+    @Test
+    public void failingTicketListeners_doNotStopDispatch() {
+        KitchenScheduler kitchen = new KitchenScheduler(2, 45 * MINUTE);
+        List<KitchenScheduler.Ticket> told = new ArrayList<>();
+        kitchen.addTicketListener(ticket -> {
+            throw new IllegalStateException("display failed");
+        });
+        kitchen.addTicketListener(told::add);
+        Order order = new Order();
+        order.addPizza(new NYPizza().createDeluxe(Size.LARGE), 2);
+        kitchen.submit(order, 0);
+
+        List<KitchenScheduler.Ticket> started = kitchen.dispatch(0);
+        assertEquals(2, started.size());
+        assertEquals(started, told);
+        assertEquals(2, kitchen.getStartedCount());
+    }
+
+    @Test
+    public void concurrentIntake_startsEveryTicketOnce() throws Exception {
+        KitchenScheduler kitchen = new KitchenScheduler(8, 45 * MINUTE);
+        int threads = 8;
+        int ordersPerThread = 5_000;
+        AtomicLong started = new AtomicLong();
+        kitchen.addTicketListener(ticket -> started.incrementAndGet());
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createDeluxe(Size.MEDIUM));
+        order.addPizza(new NYPizza().createBBQChicken(Size.MEDIUM));
+
+        TestThreads.runConcurrently(threads, thread -> {
+            for (int i = 0; i < ordersPerThread; i++) {
+                kitchen.submit(order, i * MINUTE);
+                kitchen.dispatch(i * MINUTE);
+            }
+        });
+        for (long now = kitchen.nextDispatchAt(); now >= 0; now = kitchen.nextDispatchAt()) {
+            kitchen.dispatch(now);
+        }
+
+        assertEquals(2L * threads * ordersPerThread, started.get());
+        assertEquals(started.get(), kitchen.getStartedCount());
+        assertEquals(0, kitchen.getWaitingCount());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the crust and preset topping lookup tables against the menu.
+ */
+public class MenuLookupTest {
+    @Test
+    public void crustOf_matchesTheMenu() {
+        assertEquals(Crust.ChicagoDeluxe, Crust.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO));
+        assertEquals(Crust.ChicagoBBQChicken, Crust.of(PizzaKind.BBQ_CHICKEN, PizzaStyle.CHICAGO));
+        assertEquals(Crust.ChicagoMeatzza, Crust.of(PizzaKind.MEATZZA, PizzaStyle.CHICAGO));
+        assertEquals(Crust.ChicagoBYO, Crust.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.CHICAGO));
+        assertEquals(Crust.NYDeluxe, Crust.of(PizzaKind.DELUXE, PizzaStyle.NEW_YORK));
+        assertEquals(Crust.NYBBQChicken, Crust.of(PizzaKind.BBQ_CHICKEN, PizzaStyle.NEW_YORK));
+        assertEquals(Crust.NYMeatzza, Crust.of(PizzaKind.MEATZZA, PizzaStyle.NEW_YORK));
+        assertEquals(Crust.NYBYO, Crust.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK));
+    }
+
+    @Test
+    public void getCrust_adaptsDisplayNames() {
+        assertEquals(Crust.NYMeatzza, Crust.getCrust("meatzza", "New York"));
+        assertEquals(Crust.ChicagoBYO, Crust.getCrust("Build Your Own", "CHICAGO"));
+        assertNull(Crust.getCrust("Hawaiian", "Chicago"));
+        assertNull(Crust.getCrust("Deluxe", "Detroit"));
+    }
+
+    @Test
+    public void getToppings_returnsSharedImmutablePresets() {
+        List<Topping> deluxe = Topping.getToppings("Deluxe");
+        assertSame(deluxe, Topping.getToppings("deluxe"));
+        assertEquals(EnumSet.of(Topping.SAUSAGE, Topping.PEPPERONI, Topping.GREEN_PEPPER,
+                Topping.ONION, Topping.MUSHROOM), EnumSet.copyOf(deluxe));
+        assertEquals(Arrays.asList(Topping.GREEN_PEPPER, Topping.BBQ_CHICKEN, Topping.CHEDDAR, Topping.PROVOLONE),
+                Topping.getToppings("BBQ Chicken"));
+        assertTrue(Topping.getToppings("Build Your Own").isEmpty());
+        assertTrue(Topping.getToppings("Hawaiian").isEmpty());
+        try {
+            deluxe.add(Topping.HAM);
+            fail("Preset toppings should be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void specialtyPizzas_startWithTheirPresetToppings() {
+        for (PizzaKind kind : PizzaKind.values()) {
+            assertEquals(kind.getPresetToppingMask(), kind.newPizza().getToppingMask());
+        }
+    }
+}
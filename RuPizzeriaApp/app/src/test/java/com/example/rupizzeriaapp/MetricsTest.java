@@ -0,0 +1,140 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests hot-path counters and latency histograms.
+ */
+public class MetricsTest {
+
+    @Test
+    public void disabled_recordsNothing() {
+        Metrics.setEnabled(false);
+        Metrics.Snapshot before = Metrics.snapshot();
+        long start = Metrics.start();
+        Metrics.stop(Metrics.Probe.PLACE_ORDER, start);
+        Metrics.record(Metrics.Probe.ORDER_TOTAL, 1000);
+        Metrics.increment(Metrics.Counter.PLACEMENT_QUEUE_FULL);
+        new Order().getTotalCents();
+
+        Metrics.Snapshot recorded = Metrics.snapshot().minus(before);
+        for (Metrics.Probe probe : Metrics.Probe.values()) {
+            assertEquals(0, recorded.getCount(probe));
+        }
+        assertEquals(0, recorded.getCount(Metrics.Counter.PLACEMENT_QUEUE_FULL));
+    }
+
+    @Test
+    public void timingStartedWhileDisabled_isDropped() {
+        try {
+            long start = Metrics.start();
+            Metrics.setEnabled(true);
+            Metrics.Snapshot before = Metrics.snapshot();
+            Metrics.stop(Metrics.Probe.FACTORY_CREATE, start);
+            assertEquals(0, Metrics.snapshot().minus(before).getCount(Metrics.Probe.FACTORY_CREATE));
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void percentiles_areWithinOneBucket() {
+        try {
+            Metrics.setEnabled(true);
+            Metrics.Snapshot before = Metrics.snapshot();
+            for (long nanos = 1; nanos <= 10_000; nanos++) {
+                Metrics.record(Metrics.Probe.TOPPING_BIND, nanos * 1000);
+            }
+            Metrics.Snapshot recorded = Metrics.snapshot().minus(before);
+
+            assertEquals(10_000, recorded.getCount(Metrics.Probe.TOPPING_BIND));
+            assertEquals(5_000_500, recorded.getMeanNanos(Metrics.Probe.TOPPING_BIND));
+            assertTrue(recorded.getMaxNanos(Metrics.Probe.TOPPING_BIND) >= 10_000_000);
+            assertWithinEighth(5_000_000, recorded.getPercentileNanos(Metrics.Probe.TOPPING_BIND, 50));
+            assertWithinEighth(9_900_000, recorded.getPercentileNanos(Metrics.Probe.TOPPING_BIND, 99));
+            assertEquals(10_000_000, recorded.getPercentileNanos(Metrics.Probe.TOPPING_BIND, 100));
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void buckets_coverEveryValueOnce() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = Metrics.bucketOf(value);
+            assertTrue(value <= Metrics.highestValueIn(bucket));
+            assertTrue(bucket == 0 || value > Metrics.highestValueIn(bucket - 1));
+        }
+    }
+
+    @Test
+    public void threads_areAddedUpAfterTheyEnd() throws InterruptedException {
+        try {
+            Metrics.setEnabled(true);
+            Metrics.Snapshot before = Metrics.snapshot();
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Metrics.record(Metrics.Probe.PLACE_ORDER, 500);
+                        Metrics.increment(Metrics.Counter.OUT_OF_STOCK_REFUSALS);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Metrics.Snapshot recorded = Metrics.snapshot().minus(before);
+            assertEquals(8000, recorded.getCount(Metrics.Probe.PLACE_ORDER));
+            assertEquals(8000, recorded.getCount(Metrics.Counter.OUT_OF_STOCK_REFUSALS));
+            assertEquals(8000, Metrics.snapshot().minus(before).getCount(Metrics.Probe.PLACE_ORDER));
+        } finally {
+            Metrics.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void orders_areTimedAndRefusalsCounted() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.HAM, 0);
+        Order.setToppingInventory(inventory);
+        Metrics.setEnabled(true);
+        Metrics.Snapshot before = Metrics.snapshot();
+        try {
+            Order order = new Order();
+            order.addPizza(new ChicagoPizza().createMeatzza(Size.SMALL));
+            assertFalse(order.placeOrder());
+            order.getTotalCents();
+        } finally {
+            Order.setToppingInventory(null);
+            Metrics.setEnabled(false);
+        }
+        Metrics.Snapshot recorded = Metrics.snapshot().minus(before);
+        assertEquals(1, recorded.getCount(Metrics.Probe.PLACE_ORDER));
+        assertEquals(1, recorded.getCount(Metrics.Probe.ORDER_TOTAL));
+        assertEquals(1, recorded.getCount(Metrics.Counter.OUT_OF_STOCK_REFUSALS));
+    }
+
+    @Test
+    public void snapshot_writesOneLinePerProbeAndCounter() throws IOException {
+        File file = File.createTempFile("metrics", ".txt");
+        file.deleteOnExit();
+        Metrics.snapshot().writeTo(file);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(Metrics.Probe.values().length + Metrics.Counter.values().length, lines.size());
+        assertTrue(lines.get(0).startsWith("PLACE_ORDER count="));
+        assertTrue(lines.get(lines.size() - 1).startsWith("LISTENER_FAILURES count="));
+    }
+
+    private static void assertWithinEighth(long expected, long actual) {
+        assertTrue(actual + " is not near " + expected, Math.abs(actual - expected) <= expected / 8);
+    }
+}
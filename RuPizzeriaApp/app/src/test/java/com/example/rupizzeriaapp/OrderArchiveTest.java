@@ -0,0 +1,202 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.rupizzeriaapp.TestOrders.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests writing orders to a columnar archive and scanning it.
+ */
+public class OrderArchiveTest {
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    private static File tempDirectory() throws IOException {
+        File directory = Files.createTempDirectory("archives").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    private static OrderArchive archiveOf(File directory, Order order) throws IOException {
+        return OrderArchive.open(OrderArchive.fileFor(directory, order.getPlacedAt()));
+    }
+
+    @Test
+    public void archivedOrders_scanLikeTheOriginals() throws IOException {
+        File file = tempFile(".archive");
+        List<Order> orders = sampleOrders();
+        OrderArchive.write(file, orders);
+        OrderArchive archive = OrderArchive.open(file);
+
+        assertEquals(10, archive.size());
+        assertEquals(20, archive.getLineCount());
+        assertEquals(0, archive.getPlacedAt(0));
+        assertEquals(orders.get(9).getOrderNumber(), archive.getOrderNumber(0));
+        assertEquals(9, archive.indexOf(orders.get(0).getOrderNumber()));
+        assertEquals(-1, archive.indexOf(orders.get(9).getOrderNumber() + 1));
+
+        long revenue = 0;
+        for (Order order : orders) {
+            revenue += order.getSubtotalCents();
+        }
+        assertEquals(revenue, archive.getRevenueCents(0, 10 * HOUR));
+        assertEquals(3, archive.getOrderCount(2 * HOUR, 5 * HOUR));
+        assertEquals(20, archive.countPizzas(PizzaKind.MEATZZA, Size.LARGE, 0, Long.MAX_VALUE));
+        assertEquals(6, archive.countPizzas(PizzaKind.MEATZZA, Size.LARGE, 2 * HOUR, 5 * HOUR));
+        assertEquals(0, archive.countPizzas(PizzaKind.MEATZZA, Size.SMALL, 0, Long.MAX_VALUE));
+        assertEquals(55, archive.countToppings(0, Long.MAX_VALUE)[Topping.OLIVES.ordinal()]);
+        assertEquals(75, archive.countToppings(0, Long.MAX_VALUE)[Topping.HAM.ordinal()]);
+        assertEquals(20, archive.countCrusts(0, Long.MAX_VALUE)[Crust.ChicagoMeatzza.ordinal()]);
+        assertEquals(0, archive.getRevenueCents(20 * HOUR, 30 * HOUR));
+    }
+
+    @Test
+    public void rebuiltOrders_matchTheOriginals() throws IOException {
+        File file = tempFile(".archive");
+        List<Order> orders = sampleOrders();
+        OrderArchive.write(file, orders);
+        OrderArchive archive = OrderArchive.open(file);
+
+        Order original = orders.get(3);
+        Order rebuilt;
+        // Rebuilt orders keep the prices they were charged, whatever the menu says now
+        PriceTable.setCurrent(raisedPrices(250));
+        try {
+            rebuilt = archive.getOrder(archive.indexOf(original.getOrderNumber()));
+        } finally {
+            PriceTable.setCurrent(PriceTable.DEFAULT);
+        }
+        assertEquals(original.getOrderNumber(), rebuilt.getOrderNumber());
+        assertEquals(original.getPlacedAt(), rebuilt.getPlacedAt());
+        assertEquals(original.getSubtotalCents(), rebuilt.getSubtotalCents());
+        assertEquals(original.getLineCount(), rebuilt.getLineCount());
+        for (int line = 0; line < original.getLineCount(); line++) {
+            assertEquals(original.getLinePriceCents(line), rebuilt.getLinePriceCents(line));
+        }
+        assertEquals(original.toString(), rebuilt.toString());
+    }
+
+    @Test
+    public void rebuildingAnOrder_leavesNewOrderNumbersAlone() throws IOException {
+        File file = tempFile(".archive");
+        Order late = Order.detached(2_000_000_000, HOUR);
+        late.addPizza(new NYPizza().createDeluxe(Size.MEDIUM));
+        OrderArchive.write(file, Collections.singletonList(late));
+
+        Order rebuilt = OrderArchive.open(file).getOrder(0);
+        assertEquals(late.getOrderNumber(), rebuilt.getOrderNumber());
+        assertFalse(rebuilt.placeOrder());
+        assertTrue(new Order().getOrderNumber() < late.getOrderNumber());
+    }
+
+    @Test
+    public void archivingEarlierOrders_takesThemOutOfTheOrderBook() throws IOException {
+        File directory = tempDirectory();
+        List<Order> orders = sampleOrders();
+        List<Order> told = new ArrayList<>();
+        Order.OrderListener listener = new Order.OrderListener() {
+            @Override
+            public void onOrderPlaced(Order order) {
+            }
+
+            @Override
+            public void onOrderCanceled(Order order) {
+            }
+
+            @Override
+            public void onOrderArchived(Order order) {
+                told.add(order);
+            }
+        };
+        for (Order order : orders) {
+            assertTrue(order.restoreOrder());
+        }
+        Order.addOrderListener(listener);
+        try {
+            // Orders 5 to 9 were placed before the cutoff; 9 is canceled first
+            assertTrue(orders.get(9).cancelOrder());
+            assertEquals(4, OrderArchive.archiveOrdersPlacedBefore(directory, 5 * HOUR));
+            assertEquals(4, told.size());
+            int archived = 0;
+            for (File file : directory.listFiles()) {
+                archived += OrderArchive.open(file).size();
+            }
+            assertEquals(4, archived);
+            for (int i = 0; i < 9; i++) {
+                Order order = orders.get(i);
+                if (i < 5) {
+                    assertSame(order, Order.findOrder(order.getOrderNumber()));
+                } else {
+                    assertNull(Order.findOrder(order.getOrderNumber()));
+                    assertFalse(order.isPlaced());
+                    assertFalse(order.cancelOrder());
+                    assertTrue(told.contains(order));
+                    assertTrue(archiveOf(directory, order).indexOf(order.getOrderNumber()) >= 0);
+                }
+            }
+            assertFalse(Order.getAllOrders().contains(orders.get(5)));
+            assertEquals(0, OrderArchive.archiveOrdersPlacedBefore(directory, 5 * HOUR));
+        } finally {
+            Order.removeOrderListener(listener);
+            for (Order order : orders) {
+                order.discardOrder();
+            }
+        }
+    }
+
+    @Test
+    public void archivingAgain_keepsTheOrdersAlreadyArchived() throws IOException {
+        File directory = tempDirectory();
+        List<Order> orders = sampleOrders();
+        for (Order order : orders) {
+            assertTrue(order.restoreOrder());
+        }
+        // Orders 8 and 9 go first; the rest of the day is added to the same archives later
+        assertEquals(2, OrderArchive.archiveOrdersPlacedBefore(directory, 2 * HOUR));
+        assertEquals(8, OrderArchive.archiveOrdersPlacedBefore(directory, 10 * HOUR));
+
+        int archived = 0;
+        for (File file : directory.listFiles()) {
+            archived += OrderArchive.open(file).size();
+        }
+        assertEquals(10, archived);
+        for (Order order : orders) {
+            OrderArchive archive = archiveOf(directory, order);
+            Order rebuilt = archive.getOrder(archive.indexOf(order.getOrderNumber()));
+            assertEquals(order.toString(), rebuilt.toString());
+        }
+    }
+
+    @Test
+    public void emptyArchive_hasNoOrders() throws IOException {
+        File file = tempFile(".archive");
+        OrderArchive.write(file, new ArrayList<>());
+        OrderArchive archive = OrderArchive.open(file);
+
+        assertEquals(0, archive.size());
+        assertEquals(0, archive.getRevenueCents(0, Long.MAX_VALUE));
+        assertEquals(0, archive.countToppings(0, Long.MAX_VALUE)[0]);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedArchive_isRejected() throws IOException {
+        File file = tempFile(".archive");
+        OrderArchive.write(file, sampleOrders());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        OrderArchive.open(file);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests adding catering batches to an order as line items.
+ */
+public class OrderBatchTest {
+
+    @Test
+    public void batch_isPricedLikeSinglePizzas() {
+        int toppings = Topping.HAM.mask() | Topping.ONION.mask();
+        Order batch = new Order();
+        long price = batch.addBatch(new long[] {
+                PizzaSpec.of(PizzaKind.MEATZZA, PizzaStyle.CHICAGO, Size.LARGE, 200),
+                PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, Size.SMALL, toppings, 30)
+        });
+
+        Order single = new Order();
+        for (int i = 0; i < 200; i++) {
+            single.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        }
+        for (int i = 0; i < 30; i++) {
+            Pizza pizza = new NYPizza().createBuildYourOwn();
+            pizza.setSize(Size.SMALL);
+            pizza.setToppingMask(toppings);
+            single.addPizza(pizza);
+        }
+
+        assertEquals(single.getSubtotalCents(), price);
+        assertEquals(single.getSubtotalCents(), batch.getSubtotalCents());
+        assertEquals(230, batch.getPizzaCount());
+        assertEquals(2, batch.getLineCount());
+        assertEquals(200, batch.getLineQuantity(0));
+        assertEquals(Crust.NYBYO, batch.getPizza(229).getCrust());
+        assertEquals(toppings, batch.getLinePizza(1).getToppingMask());
+        assertTrue(batch.getLinePizza(1).isFrozen());
+        assertEquals(230, batch.getPizzas().size());
+    }
+
+    @Test
+    public void invalidBatch_addsNothing() {
+        Order order = new Order();
+        order.addPizza(new NYPizza().createDeluxe(Size.SMALL));
+        long subtotal = order.getSubtotalCents();
+        long[][] invalid = {
+                {PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO, Size.LARGE, 10),
+                        PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO, Size.LARGE, 0)},
+                {PizzaSpec.of(PizzaKind.MEATZZA, PizzaStyle.CHICAGO, Size.LARGE, Topping.OLIVES.mask(), 1)},
+                {PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.CHICAGO, Size.LARGE, 0xFF, 1)},
+                {PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO, Size.LARGE, 10) | 0xFL << 56}
+        };
+        for (long[] specs : invalid) {
+            try {
+                order.addBatch(specs);
+                fail("Expected the batch to be rejected");
+            } catch (IllegalArgumentException expected) {
+                assertEquals(1, order.getPizzaCount());
+                assertEquals(1, order.getLineCount());
+                assertEquals(subtotal, order.getSubtotalCents());
+            }
+        }
+    }
+
+    @Test
+    public void removePizza_takesOneFromItsLine() {
+        Order order = new Order();
+        order.addPizza(new NYPizza().createDeluxe(Size.SMALL));
+        order.addBatch(new long[] {PizzaSpec.of(PizzaKind.BBQ_CHICKEN, PizzaStyle.NEW_YORK, Size.MEDIUM, 3)});
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        long bbqPrice = order.getPizza(1).priceCents();
+        long subtotal = order.getSubtotalCents();
+
+        assertTrue(order.removePizza(2));
+        assertEquals(4, order.getPizzaCount());
+        assertEquals(2, order.getLineQuantity(1));
+        assertEquals(subtotal - bbqPrice, order.getSubtotalCents());
+        assertTrue(order.removePizza(1));
+        assertTrue(order.removePizza(1));
+        assertEquals(2, order.getLineCount());
+        assertEquals(PizzaKind.MEATZZA, order.getPizza(1).getKind());
+        assertFalse(order.removePizza(2));
+    }
+
+    @Test
+    public void specs_roundTrip() {
+        long spec = PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, Size.MEDIUM,
+                Topping.JALAPENOS.mask() | Topping.SAUSAGE.mask(), 1_000_000);
+        assertEquals(PizzaKind.BUILD_YOUR_OWN, PizzaSpec.kind(spec));
+        assertEquals(PizzaStyle.NEW_YORK, PizzaSpec.style(spec));
+        assertEquals(Size.MEDIUM, PizzaSpec.size(spec));
+        assertEquals(Topping.JALAPENOS.mask() | Topping.SAUSAGE.mask(), PizzaSpec.toppingMask(spec));
+        assertEquals(1_000_000, PizzaSpec.quantity(spec));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress tests placing and canceling orders from many threads at once.
+ */
+public class OrderConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ORDERS = 1_000_000;
+
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    @Test
+    public void concurrentPlacement_allocatesUniqueNumbersAndLosesNoOrders() throws Exception {
+        int before = Order.getAllOrders().size();
+        Order[][] placed = new Order[THREADS][ORDERS / THREADS];
+        AtomicInteger duplicatePlacements = new AtomicInteger();
+
+        TestThreads.runConcurrently(THREADS, thread -> {
+            Order[] mine = placed[thread];
+            for (int i = 0; i < mine.length; i++) {
+                Order order = new Order();
+                assertTrue(order.placeOrder());
+                if (order.placeOrder()) {
+                    duplicatePlacements.incrementAndGet();
+                }
+                mine[i] = order;
+            }
+        });
+
+        assertEquals(0, duplicatePlacements.get());
+        assertEquals(before + ORDERS, Order.getAllOrders().size());
+
+        int first = Integer.MAX_VALUE;
+        for (Order[] orders : placed) {
+            for (Order order : orders) {
+                first = Math.min(first, order.getOrderNumber());
+            }
+        }
+        BitSet seen = new BitSet(ORDERS);
+        for (Order[] orders : placed) {
+            for (Order order : orders) {
+                int index = order.getOrderNumber() - first;
+                assertFalse("Duplicate order number " + order.getOrderNumber(), seen.get(index));
+                seen.set(index);
+            }
+        }
+        assertEquals(ORDERS, seen.cardinality());
+
+        TestThreads.runConcurrently(THREADS, thread -> {
+            for (Order order : placed[thread]) {
+                assertSame(order, Order.findOrder(order.getOrderNumber()));
+                assertTrue(order.cancelOrder());
+                assertFalse(order.cancelOrder());
+            }
+        });
+        assertEquals(before, Order.getAllOrders().size());
+        assertEquals(before, Order.getOrderCount());
+    }
+
+    @Test
+    public void concurrentPlaceAndCancel_keepsEveryOrderThatWasNotCanceled() throws Exception {
+        int perThread = 20_000;
+        List<List<Order>> kept = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            kept.add(new ArrayList<>());
+        }
+
+        TestThreads.runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < perThread; i++) {
+                Order order = new Order();
+                order.placeOrder();
+                if (i % 2 == 0) {
+                    assertTrue(order.cancelOrder());
+                    assertNull(Order.findOrder(order.getOrderNumber()));
+                    assertFalse(order.placeOrder());
+                } else {
+                    kept.get(thread).add(order);
+                }
+            }
+        });
+
+        Set<Order> all = new HashSet<>(Order.getAllOrders());
+        for (List<Order> orders : kept) {
+            for (Order order : orders) {
+                assertTrue(all.contains(order));
+                assertTrue(order.cancelOrder());
+            }
+        }
+    }
+
+    @Test
+    public void readingASession_doesNotOpenACart() {
+        OrderManager manager = OrderManager.getInstance();
+        String session = "read-only";
+        int sessions = manager.getSessionCount();
+
+        assertEquals(0, manager.getTotalPizzasInOrder(session));
+        assertEquals(0, manager.getTotalCents(session));
+        assertTrue(manager.getPizzas(session).isEmpty());
+        assertEquals(0, manager.getCurrentOrder(session).getPizzaCount());
+        assertEquals(0, manager.getCurrentOrderNumber(session));
+        assertFalse(manager.removePizza(session, 0));
+        manager.clearOrderDisplay(session);
+        assertEquals(sessions, manager.getSessionCount());
+
+        try {
+            assertTrue(manager.addPizza(session, new NYPizza().createDeluxe(Size.SMALL)));
+            assertEquals(sessions + 1, manager.getSessionCount());
+            assertNotEquals(0, manager.getCurrentOrderNumber(session));
+        } finally {
+            manager.closeSession(session);
+        }
+    }
+
+    @Test
+    public void sessionReadsWhileTheCartChanges_seeConsistentCopies() throws Exception {
+        OrderManager manager = OrderManager.getInstance();
+        String session = "concurrent-cart";
+        Pizza pizza = new NYPizza().createMeatzza(Size.MEDIUM);
+        long price = pizza.priceCents();
+        try {
+            TestThreads.runConcurrently(THREADS, thread -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (thread % 2 == 0) {
+                        manager.addPizza(session, pizza);
+                        manager.removePizza(session, 0);
+                    } else {
+                        List<Pizza> pizzas = manager.getPizzas(session);
+                        for (Pizza held : pizzas) {
+                            assertSame(pizza, held);
+                        }
+                        Order order = manager.getCurrentOrder(session);
+                        assertEquals(order.getPizzaCount() * price, order.getSubtotalCents());
+                        assertEquals(order.getPizzaCount(), order.getPizzas().size());
+                        assertFalse(order.placeOrder());
+                    }
+                }
+            });
+            assertEquals(0, manager.getTotalPizzasInOrder(session));
+        } finally {
+            manager.closeSession(session);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.example.rupizzeriaapp.TestOrders.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests exporting the order book and importing it back.
+ */
+public class OrderExportTest {
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    @Test
+    public void binaryExport_importsBackIntoTheOrderBook() throws IOException {
+        File file = tempFile(".bin");
+        List<Order> orders = sampleOrders();
+        orders.add(new Order(reserveOrderNumbers(1), 11 * HOUR));
+        assertEquals(21, OrderExport.exportBinary(file, orders));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        try {
+            // Imported orders keep the prices they were charged, whatever the menu says now
+            PriceTable.setCurrent(raisedPrices(250));
+            try {
+                assertEquals(11, OrderExport.importBinary(file));
+            } finally {
+                PriceTable.setCurrent(PriceTable.DEFAULT);
+            }
+            for (Order original : orders) {
+                Order imported = Order.findOrder(original.getOrderNumber());
+                assertNotNull(imported);
+                assertNotSame(original, imported);
+                assertTrue(imported.isPlaced());
+                assertEquals(original.getPlacedAt(), imported.getPlacedAt());
+                assertEquals(original.getSubtotalCents(), imported.getSubtotalCents());
+                assertEquals(original.getPizzaCount(), imported.getPizzaCount());
+                assertEquals(original.getLineCount(), imported.getLineCount());
+                for (int line = 0; line < original.getLineCount(); line++) {
+                    assertEquals(original.getLinePriceCents(line), imported.getLinePriceCents(line));
+                }
+                assertEquals(original.toString(), imported.toString());
+            }
+            assertEquals(0, OrderExport.importBinary(file));
+        } finally {
+            for (Order original : orders) {
+                Order imported = Order.findOrder(original.getOrderNumber());
+                if (imported != null) {
+                    imported.discardOrder();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void csvExport_hasOneRowPerLineItem() throws IOException {
+        File file = tempFile(".csv");
+        List<Order> orders = sampleOrders();
+        int firstNumber = orders.get(0).getOrderNumber();
+        int empty = reserveOrderNumbers(1);
+        orders.add(new Order(empty, 11 * HOUR));
+        assertEquals(21, OrderExport.exportCsv(file, orders));
+
+        List<String> rows = Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII);
+        assertEquals(22, rows.size());
+        assertEquals(OrderExport.CSV_HEADER.trim(), rows.get(0));
+        Order first = orders.get(0);
+        String totals = Money.format(first.getSubtotalCents()) + "," + Money.format(first.getTotalCents());
+        assertEquals(firstNumber + ",32400000,Meatzza,LARGE,ChicagoMeatzza,"
+                + "sausage;pepperoni;beef;ham,2," + totals, rows.get(1));
+        assertEquals(firstNumber + ",32400000,BuildYourOwn,SMALL,NYBYO,ham;olives,1," + totals, rows.get(2));
+        assertTrue(rows.get(20).startsWith((firstNumber + 9) + ",0,BuildYourOwn,SMALL,NYBYO,ham;olives,10,"));
+        assertEquals(empty + ",39600000,,,,,0,0.00,0.00", rows.get(21));
+    }
+
+    @Test
+    public void invalidRecord_importsNothing() throws IOException {
+        File file = tempFile(".bin");
+        List<Order> orders = sampleOrders();
+        int records = OrderExport.exportBinary(file, orders);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // An unknown pizza kind in the last record
+            raf.seek(8 + (records - 1) * 32L + 26);
+            raf.write(99);
+        }
+
+        try {
+            OrderExport.importBinary(file);
+            fail("The export should have been rejected");
+        } catch (IOException e) {
+            for (Order original : orders) {
+                assertNull(Order.findOrder(original.getOrderNumber()));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFiles_areNotImported() throws IOException {
+        File file = tempFile(".csv");
+        OrderExport.exportCsv(file, sampleOrders());
+        OrderExport.importBinary(file);
+    }
+}
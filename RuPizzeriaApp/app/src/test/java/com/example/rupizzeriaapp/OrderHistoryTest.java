@@ -0,0 +1,68 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the paged summaries of the order history.
+ */
+public class OrderHistoryTest {
+    private static List<Order> createOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        PizzaFactory factory = new ChicagoPizza();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            for (int p = 0; p <= i % 3; p++) {
+                order.addPizza(factory.createDeluxe(Size.values()[p]));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    @Test
+    public void summaries_matchTheOrders() {
+        List<Order> orders = createOrders(3 * OrderHistory.PAGE_SIZE + 5);
+        OrderHistory history = new OrderHistory(orders);
+        assertEquals(orders.size(), history.size());
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Order order = orders.get(i);
+            assertSame(order, history.getOrder(i));
+            assertEquals(order.getOrderNumber(), history.getOrderNumber(i));
+            assertEquals(order.getPizzaCount(), history.getPizzaCount(i));
+            assertEquals(order.getTotalCents(), history.getTotalCents(i));
+        }
+        Order first = orders.get(0);
+        assertEquals("Order #" + first.getOrderNumber() + " - 1 pizza - $" + Money.format(first.getTotalCents()),
+                history.appendSummary(new StringBuilder(), 0).toString());
+    }
+
+    @Test
+    public void remove_keepsLoadedAndUnloadedPagesConsistent() {
+        List<Order> orders = createOrders(3 * OrderHistory.PAGE_SIZE);
+        OrderHistory history = new OrderHistory(orders);
+        // Load only the first and last pages before removing
+        history.getOrderNumber(0);
+        history.getOrderNumber(orders.size() - 1);
+
+        history.remove(OrderHistory.PAGE_SIZE - 1);
+        orders.remove(OrderHistory.PAGE_SIZE - 1);
+        history.remove(0);
+        orders.remove(0);
+
+        assertEquals(orders.size(), history.size());
+        for (int i = 0; i < orders.size(); i++) {
+            assertEquals(orders.get(i).getOrderNumber(), history.getOrderNumber(i));
+            assertEquals(orders.get(i).getTotalCents(), history.getTotalCents(i));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void positionPastTheEnd_isRejected() {
+        new OrderHistory(createOrders(2)).getOrderNumber(2);
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests rebuilding the store order book from the order journal after a restart or crash.
+ */
+public class OrderJournalTest {
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    private static File tempDirectory() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    private static Order placeOrder(int pizzas) {
+        Order order = new Order();
+        order.addPizza(new NYPizza().createDeluxe(Size.LARGE), pizzas);
+        Pizza custom = new ChicagoPizza().createBuildYourOwn();
+        custom.setSize(Size.SMALL);
+        custom.setToppingMask(Topping.HAM.mask() | Topping.ONION.mask());
+        order.addPizza(custom);
+        assertTrue(order.placeOrder());
+        return order;
+    }
+
+    /**
+     * Takes orders out of the order book without telling the journal, as if the app had restarted.
+     */
+    private static void forget(List<Order> orders) {
+        for (Order order : orders) {
+            Order found = Order.findOrder(order.getOrderNumber());
+            if (found != null) {
+                found.discardOrder();
+            }
+        }
+    }
+
+    private static void assertRestored(Order original) {
+        Order restored = Order.findOrder(original.getOrderNumber());
+        assertNotNull("Order " + original.getOrderNumber() + " was not restored", restored);
+        assertNotSame(original, restored);
+        assertEquals(original.getPlacedAt(), restored.getPlacedAt());
+        assertEquals(original.getSubtotalCents(), restored.getSubtotalCents());
+        assertEquals(original.getLineCount(), restored.getLineCount());
+        for (int line = 0; line < original.getLineCount(); line++) {
+            assertEquals(original.getLinePriceCents(line), restored.getLinePriceCents(line));
+        }
+        assertEquals(original.toString(), restored.toString());
+    }
+
+    private static int timesInOrderBook(Order order) {
+        int times = 0;
+        for (Order placed : Order.getAllOrders()) {
+            if (placed.getOrderNumber() == order.getOrderNumber()) {
+                times++;
+            }
+        }
+        return times;
+    }
+
+    @Test
+    public void placedAndCanceledOrders_areReplayed() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        for (int i = 1; i <= 3; i++) {
+            orders.add(placeOrder(i));
+        }
+        assertTrue(orders.get(1).cancelOrder());
+        journal.close();
+        forget(orders);
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertRestored(orders.get(0));
+            assertRestored(orders.get(2));
+            assertNull(Order.findOrder(orders.get(1).getOrderNumber()));
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void replayedOrders_keepThePricesTheyWereCharged() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        PriceTable.setCurrent(TestOrders.raisedPrices(250));
+        try {
+            orders.add(placeOrder(2));
+        } finally {
+            PriceTable.setCurrent(PriceTable.DEFAULT);
+        }
+        journal.close();
+        forget(orders);
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertRestored(orders.get(0));
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void archivedOrders_areNotReplayed() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        orders.add(placeOrder(1));
+        orders.add(placeOrder(2));
+        assertEquals(1, Order.archiveOrders(orders.subList(0, 1)).size());
+        journal.close();
+        forget(orders);
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertNull(Order.findOrder(orders.get(0).getOrderNumber()));
+            assertRestored(orders.get(1));
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void importedOrders_areJournaled() throws Exception {
+        File directory = tempDirectory();
+        File export = new File(directory, "orders-export.bin");
+        List<Order> orders = TestOrders.sampleOrders();
+        OrderExport.exportBinary(export, orders);
+        OrderJournal journal = OrderJournal.start(directory);
+        assertEquals(orders.size(), OrderExport.importBinary(export));
+        assertTrue(Order.findOrder(orders.get(0).getOrderNumber()).cancelOrder());
+        journal.close();
+        forget(orders);
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertNull(Order.findOrder(orders.get(0).getOrderNumber()));
+            for (int i = 1; i < orders.size(); i++) {
+                Order restored = Order.findOrder(orders.get(i).getOrderNumber());
+                assertNotNull(restored);
+                assertEquals(orders.get(i).getSubtotalCents(), restored.getSubtotalCents());
+                assertEquals(orders.get(i).getPlacedAt(), restored.getPlacedAt());
+            }
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void tornRecord_isCutOffTheEndOfTheJournal() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        orders.add(placeOrder(1));
+        orders.add(placeOrder(2));
+        journal.close();
+        forget(orders);
+
+        File file = new File(directory, "orders.journal");
+        long intact = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // A record cut short by a crash: its length promises more bytes than were written
+            raf.seek(intact);
+            raf.writeInt(40);
+            raf.write(new byte[] {1, 0, 0, 0, 7});
+        }
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertEquals(intact, file.length());
+            assertRestored(orders.get(0));
+            assertRestored(orders.get(1));
+            Order next = placeOrder(1);
+            orders.add(next);
+            journal.close();
+            forget(orders);
+            journal = OrderJournal.start(directory);
+            assertRestored(next);
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void corruptRecord_endsTheReplay() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        orders.add(placeOrder(1));
+        journal.flush();
+        long firstRecordEnd = new File(directory, "orders.journal").length();
+        orders.add(placeOrder(2));
+        journal.close();
+        forget(orders);
+
+        File file = new File(directory, "orders.journal");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // Flip the last byte of the second record's checksum
+            raf.seek(file.length() - 1);
+            int last = raf.read();
+            raf.seek(file.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertRestored(orders.get(0));
+            assertNull(Order.findOrder(orders.get(1).getOrderNumber()));
+            assertEquals(firstRecordEnd, file.length());
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void replayAfterInterruptedCompaction_restoresEachOrderOnce() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        for (int i = 1; i <= 3; i++) {
+            orders.add(placeOrder(i));
+        }
+        assertTrue(orders.get(0).cancelOrder());
+        journal.close();
+        forget(orders);
+        // A crash after the snapshot was renamed into place but before the journal was emptied
+        // leaves the same records in both files
+        Files.copy(new File(directory, "orders.journal").toPath(),
+                new File(directory, "orders.snapshot").toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        journal = OrderJournal.start(directory);
+        try {
+            assertNull(Order.findOrder(orders.get(0).getOrderNumber()));
+            assertRestored(orders.get(1));
+            assertRestored(orders.get(2));
+            assertEquals(1, timesInOrderBook(orders.get(1)));
+            assertEquals(1, timesInOrderBook(orders.get(2)));
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void compaction_replacesTheJournalWithASnapshot() throws Exception {
+        File directory = tempDirectory();
+        File file = new File(directory, "orders.journal");
+        List<Order> orders = new ArrayList<>();
+        int canceled = 6_000 + Order.getOrderCount();
+        OrderJournal journal = OrderJournal.start(directory);
+        for (int i = 0; i < canceled + 10; i++) {
+            orders.add(placeOrder(1));
+        }
+        journal.flush();
+        long uncompactedSize = file.length();
+        for (int i = 0; i < canceled; i++) {
+            assertTrue(orders.get(i).cancelOrder());
+        }
+        journal.close();
+        forget(orders);
+
+        assertTrue(new File(directory, "orders.snapshot").exists());
+        assertTrue(file.length() < uncompactedSize);
+
+        journal = OrderJournal.start(directory);
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                if (i < canceled) {
+                    assertNull(Order.findOrder(orders.get(i).getOrderNumber()));
+                } else {
+                    assertRestored(orders.get(i));
+                }
+            }
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void replayingADayOfOrders_takesWellUnderASecond() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        for (int i = 0; i < 10_000; i++) {
+            orders.add(placeOrder(1 + i % 3));
+        }
+        journal.close();
+        forget(orders);
+
+        long start = System.nanoTime();
+        journal = OrderJournal.start(directory);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        try {
+            assertTrue("Replay took " + millis + " ms", millis < 1000);
+            assertRestored(orders.get(0));
+            assertRestored(orders.get(orders.size() - 1));
+        } finally {
+            journal.close();
+            forget(orders);
+        }
+    }
+
+    @Test
+    public void failedJournal_stopsQueueingAndReportsTheFailure() throws Exception {
+        File directory = tempDirectory();
+        List<Order> orders = new ArrayList<>();
+        OrderJournal journal = OrderJournal.start(directory);
+        try {
+            // An order the writer cannot encode
+            Order broken = new Order() {
+                @Override
+                public long getPlacedAt() {
+                    throw new IllegalStateException("broken order");
+                }
+            };
+            orders.add(broken);
+            assertTrue(broken.placeOrder());
+            try {
+                journal.flush();
+                fail("flush should report the failure");
+            } catch (IOException e) {
+                assertSame(e, journal.getFailure());
+            }
+            orders.add(placeOrder(1));
+            try {
+                journal.flush();
+                fail("flush should keep reporting the failure");
+            } catch (IOException e) {
+                assertSame(e, journal.getFailure());
+            }
+        } finally {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                assertSame(e, journal.getFailure());
+            }
+            forget(orders);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that identical pizzas in an order share a line item.
+ */
+public class OrderLineItemTest {
+
+    private static Pizza cheese(Size size) {
+        Pizza pizza = new NYPizza().createBuildYourOwn();
+        pizza.setSize(size);
+        return pizza;
+    }
+
+    @Test
+    public void identicalPizzas_shareOneLine() {
+        Order order = new Order();
+        for (int i = 0; i < 30; i++) {
+            assertTrue(order.addPizza(cheese(Size.LARGE)));
+        }
+        order.addPizza(cheese(Size.SMALL));
+
+        assertEquals(31, order.getPizzaCount());
+        assertEquals(2, order.getLineCount());
+        assertEquals(30, order.getLineQuantity(0));
+        assertEquals(30 * cheese(Size.LARGE).priceCents() + cheese(Size.SMALL).priceCents(),
+                order.getSubtotalCents());
+        assertTrue(order.getPizza(0).isFrozen());
+        assertSame(order.getPizza(0), order.getPizza(29));
+        assertEquals(Size.SMALL, order.getPizza(30).getSize());
+    }
+
+    @Test
+    public void batches_joinMatchingLines() {
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createDeluxe(Size.MEDIUM));
+        order.addPizza(cheese(Size.LARGE));
+        order.addBatch(new long[] {
+                PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO, Size.MEDIUM, 9),
+                PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, Size.LARGE, 0, 4),
+                PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.NEW_YORK, Size.MEDIUM, 2),
+                PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.NEW_YORK, Size.MEDIUM, 3)
+        });
+
+        assertEquals(3, order.getLineCount());
+        assertEquals(10, order.getLineQuantity(0));
+        assertEquals(5, order.getLineQuantity(1));
+        assertEquals(5, order.getLineQuantity(2));
+        assertEquals(Crust.NYDeluxe, order.getLinePizza(2).getCrust());
+    }
+
+    @Test
+    public void differentCrusts_stayOnSeparateLines() {
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        order.addPizza(new NYPizza().createMeatzza(Size.LARGE));
+        Pizza noCrust = new BuildYourOwn();
+        noCrust.setSize(Size.LARGE);
+        order.addPizza(noCrust);
+        order.addPizza(cheese(Size.LARGE));
+
+        assertEquals(4, order.getLineCount());
+    }
+
+    @Test
+    public void removePizza_worksThroughThePerPieView() {
+        Order order = new Order();
+        order.addPizza(cheese(Size.LARGE));
+        order.addPizza(new NYPizza().createBBQChicken(Size.SMALL));
+        order.addPizza(cheese(Size.LARGE));
+
+        assertEquals(3, order.getPizzas().size());
+        assertEquals(PizzaKind.BUILD_YOUR_OWN, order.getPizzas().get(1).getKind());
+        assertEquals(PizzaKind.BBQ_CHICKEN, order.getPizzas().get(2).getKind());
+        assertTrue(order.removePizza(2));
+        assertEquals(1, order.getLineCount());
+        assertEquals(2 * cheese(Size.LARGE).priceCents(), order.getSubtotalCents());
+        assertTrue(order.removePizza(0));
+        assertTrue(order.removePizza(0));
+        assertEquals(0, order.getLineCount());
+        assertEquals(0, order.getSubtotalCents());
+        assertFalse(order.removePizza(0));
+    }
+
+    @Test
+    public void priceChange_startsANewLine() {
+        Order order = new Order();
+        Pizza deluxe = new NYPizza().createDeluxe(Size.SMALL);
+        order.addPizza(deluxe);
+        long oldPrice = deluxe.priceCents();
+        long[] toppingPrices = {169, 0, 0, 0};
+        long[][] basePrices = new long[PizzaKind.values().length][Size.values().length];
+        for (PizzaKind kind : PizzaKind.values()) {
+            for (Size size : Size.values()) {
+                basePrices[kind.ordinal()][size.ordinal()] = PriceTable.DEFAULT.basePrice(kind, size) + 100;
+            }
+        }
+        PriceTable.setCurrent(new PriceTable(basePrices, toppingPrices));
+        try {
+            order.addPizza(deluxe);
+        } finally {
+            PriceTable.setCurrent(PriceTable.DEFAULT);
+        }
+
+        assertEquals(2, order.getLineCount());
+        assertEquals(oldPrice, order.getLinePriceCents(0));
+        assertEquals(oldPrice + 100, order.getLinePriceCents(1));
+        assertEquals(2 * oldPrice + 100, order.getSubtotalCents());
+        // The receipt shows what each pizza was charged, so its lines add up to the subtotal
+        String[] receipt = order.toString().split("\n");
+        assertTrue(receipt[1].endsWith(" $" + Money.format(oldPrice)));
+        assertTrue(receipt[2].endsWith(" $" + Money.format(oldPrice + 100)));
+        assertTrue(order.removePizza(1));
+        assertEquals(oldPrice, order.getSubtotalCents());
+    }
+
+    @Test
+    public void addedPizzas_areFrozenCopies() {
+        Order order = new Order();
+        Pizza pizza = cheese(Size.MEDIUM);
+        order.addPizza(pizza);
+        pizza.addTopping(Topping.HAM);
+
+        assertFalse(pizza.isFrozen());
+        assertNotSame(pizza, order.getPizza(0));
+        assertEquals(0, order.getPizza(0).getToppingCount());
+        assertEquals(cheese(Size.MEDIUM).priceCents(), order.getSubtotalCents());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void pizzasInAnOrder_cannotBeChanged() {
+        Order order = new Order();
+        order.addPizza(cheese(Size.MEDIUM));
+        order.getPizza(0).addTopping(Topping.HAM);
+    }
+}
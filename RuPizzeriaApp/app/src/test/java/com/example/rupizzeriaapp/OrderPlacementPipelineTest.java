@@ -0,0 +1,125 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests placing orders through the background placement pipeline.
+ */
+public class OrderPlacementPipelineTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    @Test
+    public void submittedOrders_arePlacedAndReportedOnce() throws Exception {
+        OrderPlacementPipeline pipeline = new OrderPlacementPipeline();
+        int count = 1000;
+        CountDownLatch done = new CountDownLatch(count);
+        List<Order> reported = new ArrayList<>();
+        List<Order> submitted = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            submitted.add(order);
+            while (!pipeline.submit(order, DIRECT, (placed, ok) -> {
+                assertTrue(ok);
+                synchronized (reported) {
+                    reported.add(placed);
+                }
+                done.countDown();
+            })) {
+                Thread.yield();
+            }
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(submitted, reported);
+        for (Order order : submitted) {
+            assertTrue(order.isPlaced());
+            assertSame(order, Order.findOrder(order.getOrderNumber()));
+            assertTrue(order.cancelOrder());
+        }
+    }
+
+    @Test
+    public void failingCallbacksAndExecutors_doNotStopThePipeline() throws Exception {
+        OrderPlacementPipeline pipeline = new OrderPlacementPipeline();
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        OrderPlacementPipeline.PlacementCallback throwing = (order, placed) -> {
+            throw new IllegalStateException("bad callback");
+        };
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(new Order());
+        }
+        assertTrue(pipeline.submit(orders.get(0), DIRECT, throwing));
+        assertTrue(pipeline.submit(orders.get(1), rejecting, (order, placed) -> fail("rejected")));
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(pipeline.submit(orders.get(2), DIRECT, (order, placed) -> {
+            assertTrue(placed);
+            done.countDown();
+        }));
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (Order order : orders) {
+            assertTrue(order.cancelOrder());
+        }
+    }
+
+    @Test
+    public void fullPipeline_rejectsInsteadOfBlocking() throws Exception {
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Order.OrderListener stall = new Order.OrderListener() {
+            @Override
+            public void onOrderPlaced(Order order) {
+                placing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onOrderCanceled(Order order) {
+            }
+        };
+        Order.addOrderListener(stall);
+        try {
+            OrderPlacementPipeline pipeline = new OrderPlacementPipeline(2);
+            CountDownLatch done = new CountDownLatch(3);
+            OrderPlacementPipeline.PlacementCallback callback = (order, placed) -> done.countDown();
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                orders.add(new Order());
+            }
+            assertTrue(pipeline.submit(orders.get(0), DIRECT, callback));
+            assertTrue(placing.await(10, TimeUnit.SECONDS));
+            assertTrue(pipeline.submit(orders.get(1), DIRECT, callback));
+            assertTrue(pipeline.submit(orders.get(2), DIRECT, callback));
+            assertFalse(pipeline.submit(orders.get(3), DIRECT, callback));
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertFalse(orders.get(3).isPlaced());
+            for (Order order : orders.subList(0, 3)) {
+                assertTrue(order.cancelOrder());
+            }
+        } finally {
+            release.countDown();
+            Order.removeOrderListener(stall);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that the pizza factories produce close to zero garbage, by counting the bytes
+ * the current thread allocates while creating pizzas.
+ */
+public class PizzaFactoryAllocationTest {
+    private static final int CALLS = 100_000;
+    private static final PizzaFactory[] FACTORIES = {new ChicagoPizza(), new NYPizza()};
+
+    @Test
+    public void sizedSpecialtyPizzas_areSharedAndFrozen() {
+        for (PizzaFactory factory : FACTORIES) {
+            for (Size size : Size.values()) {
+                Pizza deluxe = factory.createDeluxe(size);
+                assertSame(deluxe, factory.createDeluxe(size));
+                assertTrue(deluxe.isFrozen());
+                assertEquals(size, deluxe.getSize());
+                assertEquals(5, deluxe.getToppingCount());
+                assertSame(factory.createMeatzza(size), factory.createMeatzza(size));
+                assertSame(factory.createBBQChicken(size), factory.createBBQChicken(size));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedPizza_cannotBeChanged() {
+        new ChicagoPizza().createMeatzza(Size.SMALL).addTopping(Topping.PINEAPPLES);
+    }
+
+    @Test
+    public void specialtyFactoryMethods_doNotAddPresetToppingsTwice() {
+        for (PizzaFactory factory : FACTORIES) {
+            assertEquals(5, factory.createDeluxe().getToppingCount());
+            assertEquals(4, factory.createMeatzza().getToppingCount());
+            assertEquals(4, factory.createBBQChicken().getToppingCount());
+        }
+    }
+
+    @Test
+    public void sizedSpecialtyPizzas_allocateNothing() {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        createSizedPizzas(CALLS);
+        long before = allocatedBytes(threads);
+        createSizedPizzas(CALLS);
+        long allocated = allocatedBytes(threads) - before;
+        assertTrue("Allocated " + allocated + " bytes for " + 3 * CALLS + " pizzas",
+                allocated < 16 * 1024);
+    }
+
+    @Test
+    public void buildYourOwnPizza_allocatesOnlyThePizza() {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        createBuildYourOwnPizzas(CALLS);
+        long before = allocatedBytes(threads);
+        createBuildYourOwnPizzas(CALLS);
+        long perPizza = (allocatedBytes(threads) - before) / CALLS;
+        assertTrue("Allocated " + perPizza + " bytes per pizza", perPizza <= 40);
+    }
+
+    private static long createSizedPizzas(int calls) {
+        Size[] sizes = Size.values();
+        long sink = 0;
+        for (int i = 0; i < calls; i++) {
+            PizzaFactory factory = FACTORIES[i & 1];
+            Size size = sizes[i % sizes.length];
+            sink += factory.createDeluxe(size).getToppingMask();
+            sink += factory.createMeatzza(size).getToppingMask();
+            sink += factory.createBBQChicken(size).getToppingMask();
+        }
+        return sink;
+    }
+
+    private static long createBuildYourOwnPizzas(int calls) {
+        long sink = 0;
+        for (int i = 0; i < calls; i++) {
+            Pizza pizza = FACTORIES[i & 1].createBuildYourOwn();
+            pizza.setSize(Size.MEDIUM);
+            pizza.setToppingMask(i & 0x7F);
+            sink += pizza.getToppingMask();
+        }
+        return sink;
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+}
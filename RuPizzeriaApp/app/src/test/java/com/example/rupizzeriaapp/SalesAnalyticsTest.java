@@ -0,0 +1,158 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the running sales figures kept as orders are placed and canceled.
+ */
+public class SalesAnalyticsTest {
+    private static final long HOUR = 60 * 60_000L;
+
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    @Test
+    public void placedOrders_areCountedByKindSizeCrustAndTopping() {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order order = new Order();
+        Pizza meatzza = new ChicagoPizza().createMeatzza(Size.LARGE);
+        order.addPizza(meatzza);
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        order.addPizza(new NYPizza().createDeluxe(Size.SMALL));
+        assertTrue(order.placeOrder());
+        analytics.onOrderPlaced(order);
+
+        assertEquals(1, analytics.getOrderCount());
+        assertEquals(order.getSubtotalCents(), analytics.getRevenueCents());
+        assertEquals(2, analytics.getPizzaCount(PizzaKind.MEATZZA, Size.LARGE));
+        assertEquals(2 * meatzza.priceCents(), analytics.getPizzaRevenueCents(PizzaKind.MEATZZA, Size.LARGE));
+        assertEquals(0, analytics.getPizzaCount(PizzaKind.MEATZZA, Size.SMALL));
+        assertEquals(2, analytics.getPizzaCount(Crust.ChicagoMeatzza));
+        assertEquals(1, analytics.getPizzaCount(Crust.NYDeluxe));
+        assertEquals(2 * meatzza.priceCents(), analytics.getRevenueCents(Crust.ChicagoMeatzza));
+        assertEquals(3, analytics.getPizzaCount(Topping.SAUSAGE));
+        assertEquals(1, analytics.getPizzaCount(Topping.MUSHROOM));
+
+        long placedAt = order.getPlacedAt();
+        assertEquals(1, analytics.getHourlyOrderCount(placedAt));
+        assertEquals(order.getSubtotalCents(), analytics.getHourlyRevenueCents(placedAt));
+        assertEquals(2, analytics.getHourlyPizzaCount(PizzaKind.MEATZZA, Size.LARGE, placedAt));
+        assertEquals(0, analytics.getHourlyOrderCount(placedAt - HOUR));
+        assertEquals(0, analytics.getHourlyOrderCount(placedAt - SalesAnalytics.HOURS_KEPT * HOUR));
+        assertEquals(order.getSubtotalCents(), analytics.getRecentRevenueCents(placedAt + HOUR, 2));
+        assertEquals(0, analytics.getRecentRevenueCents(placedAt + HOUR, 1));
+    }
+
+    @Test
+    public void canceledOrders_areSubtracted() {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order kept = new Order();
+        kept.addPizza(new NYPizza().createBBQChicken(Size.MEDIUM));
+        Order canceled = new Order();
+        canceled.addPizza(new NYPizza().createBBQChicken(Size.MEDIUM));
+        assertTrue(kept.placeOrder());
+        assertTrue(canceled.placeOrder());
+        analytics.onOrderPlaced(kept);
+        analytics.onOrderPlaced(canceled);
+        assertTrue(canceled.cancelOrder());
+        analytics.onOrderCanceled(canceled);
+
+        assertEquals(1, analytics.getOrderCount());
+        assertEquals(kept.getSubtotalCents(), analytics.getRevenueCents());
+        assertEquals(1, analytics.getPizzaCount(PizzaKind.BBQ_CHICKEN, Size.MEDIUM));
+        assertEquals(1, analytics.getPizzaCount(Crust.NYBBQChicken));
+        assertEquals(1, analytics.getHourlyOrderCount(kept.getPlacedAt()));
+    }
+
+    @Test
+    public void crustAndTopping_areCountedPerHour() {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order order = new Order();
+        Pizza deluxe = new ChicagoPizza().createDeluxe(Size.MEDIUM);
+        order.addPizza(deluxe, 3);
+        assertTrue(order.placeOrder());
+        analytics.onOrderPlaced(order);
+
+        long placedAt = order.getPlacedAt();
+        assertEquals(3, analytics.getHourlyPizzaCount(Crust.ChicagoDeluxe, placedAt));
+        assertEquals(3 * deluxe.priceCents(), analytics.getHourlyRevenueCents(Crust.ChicagoDeluxe, placedAt));
+        assertEquals(3, analytics.getHourlyPizzaCount(Topping.ONION, placedAt));
+        assertEquals(0, analytics.getHourlyPizzaCount(Crust.ChicagoDeluxe, placedAt - HOUR));
+        assertEquals(0, analytics.getHourlyPizzaCount(Topping.ONION, placedAt - HOUR));
+
+        assertTrue(order.cancelOrder());
+        analytics.onOrderCanceled(order);
+        assertEquals(0, analytics.getHourlyPizzaCount(Crust.ChicagoDeluxe, placedAt));
+        assertEquals(0, analytics.getHourlyRevenueCents(Crust.ChicagoDeluxe, placedAt));
+        assertEquals(0, analytics.getHourlyPizzaCount(Topping.ONION, placedAt));
+    }
+
+    @Test
+    public void cancellationAfterAPriceChange_subtractsWhatWasAdded() {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order order = new Order();
+        order.addPizza(new NYPizza().createMeatzza(Size.SMALL), 2);
+        assertTrue(order.placeOrder());
+        analytics.onOrderPlaced(order);
+        long[][] doubled = new long[PizzaKind.values().length][];
+        for (PizzaKind kind : PizzaKind.values()) {
+            doubled[kind.ordinal()] = new long[Size.values().length];
+            for (Size size : Size.values()) {
+                doubled[kind.ordinal()][size.ordinal()] = 2 * PriceTable.DEFAULT.basePrice(kind, size);
+            }
+        }
+        PriceTable.setCurrent(new PriceTable(doubled, new long[] {338, 0, 0, 0}));
+        try {
+            assertTrue(order.cancelOrder());
+            analytics.onOrderCanceled(order);
+        } finally {
+            PriceTable.setCurrent(PriceTable.DEFAULT);
+        }
+
+        assertEquals(0, analytics.getRevenueCents());
+        assertEquals(0, analytics.getPizzaRevenueCents(PizzaKind.MEATZZA, Size.SMALL));
+        assertEquals(0, analytics.getRevenueCents(Crust.NYMeatzza));
+        assertEquals(0, analytics.getHourlyRevenueCents(Crust.NYMeatzza, order.getPlacedAt()));
+    }
+
+    @Test
+    public void canceledRestoredOrders_areNotSubtracted() {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order restored = new Order(TestOrders.reserveOrderNumbers(1), System.currentTimeMillis());
+        restored.addPizza(new NYPizza().createDeluxe(Size.LARGE));
+        assertTrue(restored.restoreOrder());
+        assertTrue(restored.cancelOrder());
+        analytics.onOrderCanceled(restored);
+
+        assertEquals(0, analytics.getOrderCount());
+        assertEquals(0, analytics.getRevenueCents());
+        assertEquals(0, analytics.getPizzaCount(Crust.NYDeluxe));
+        assertEquals(0, analytics.getHourlyOrderCount(restored.getPlacedAt()));
+    }
+
+    @Test
+    public void concurrentPlacements_areAllCounted() throws Exception {
+        SalesAnalytics analytics = new SalesAnalytics();
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createDeluxe(Size.SMALL));
+        assertTrue(order.placeOrder());
+        int threads = 8;
+        int ordersPerThread = 10_000;
+        TestThreads.runConcurrently(threads, thread -> {
+            for (int i = 0; i < ordersPerThread; i++) {
+                analytics.onOrderPlaced(order);
+            }
+        });
+
+        long orders = (long) threads * ordersPerThread;
+        assertEquals(orders, analytics.getOrderCount());
+        assertEquals(orders, analytics.getHourlyOrderCount(order.getPlacedAt()));
+        assertEquals(orders * order.getSubtotalCents(), analytics.getRevenueCents());
+        assertEquals(orders, analytics.getPizzaCount(PizzaKind.DELUXE, Size.SMALL));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rupizzeriaapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the tests that write orders to files.
+ */
+final class TestOrders {
+    static final long HOUR = 60 * 60_000L;
+
+    private TestOrders() {
+    }
+
+    /**
+     * Reserves a range of order numbers that no other order, numbered automatically or not, is
+     * given, so a test can build orders with known numbers.
+     *
+     * @return the first number of the range
+     */
+    static synchronized int reserveOrderNumbers(int count) {
+        int first = new Order().getOrderNumber() + 1;
+        // Numbers orders created from now on after the range
+        new Order(first + count - 1, 0);
+        return first;
+    }
+
+    /**
+     * Builds a price table with every base price raised by an amount, for checking that orders
+     * keep the prices they were charged.
+     */
+    static PriceTable raisedPrices(long centsMore) {
+        long[][] basePrices = new long[PizzaKind.values().length][Size.values().length];
+        for (PizzaKind kind : PizzaKind.values()) {
+            for (Size size : Size.values()) {
+                basePrices[kind.ordinal()][size.ordinal()] = PriceTable.DEFAULT.basePrice(kind, size) + centsMore;
+            }
+        }
+        return new PriceTable(basePrices, new long[] {169, 0, 0, 0});
+    }
+
+    /**
+     * Takes every order out of the store order book without telling listeners, so a test leaves
+     * nothing behind for the tests after it.
+     */
+    static void clearOrderBook() {
+        for (Order order : Order.getAllOrders()) {
+            order.discardOrder();
+        }
+    }
+
+    /**
+     * Creates a temporary file that is deleted when the tests finish.
+     */
+    static File tempFile(String suffix) throws IOException {
+        File file = File.createTempFile("orders", suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Builds 10 unplaced orders with consecutive numbers reserved for them, placed an hour apart
+     * but listed latest first. Order i holds two large Chicago Meatzzas and i + 1 small New York
+     * Build Your Own pizzas with olives and ham.
+     */
+    static List<Order> sampleOrders() {
+        int firstNumber = reserveOrderNumbers(10);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Order order = new Order(firstNumber + i, (9 - i) * HOUR);
+            order.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE), 2);
+            Pizza byo = new NYPizza().createBuildYourOwn();
+            byo.setSize(Size.SMALL);
+            byo.setToppingMask(Topping.OLIVES.mask() | Topping.HAM.mask());
+            order.addPizza(byo, i + 1);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
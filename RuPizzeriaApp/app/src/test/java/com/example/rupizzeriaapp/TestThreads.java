@@ -0,0 +1,52 @@
+package com.example.rupizzeriaapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs a task on several threads at once, for the concurrency tests.
+ */
+final class TestThreads {
+
+    interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    private TestThreads() {
+    }
+
+    /**
+     * Starts the threads together, waits for all of them and rethrows the first failure.
+     *
+     * @param threads the number of threads
+     * @param task    the task, given the index of the thread running it
+     */
+    static void runConcurrently(int threads, Task task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(thread);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.rupizzeriaapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests reserving topping stock for orders.
+ */
+public class ToppingInventoryTest {
+    @After
+    public void clearOrderBook() {
+        TestOrders.clearOrderBook();
+    }
+
+    private static Order meatzzaOrder() {
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.SMALL));
+        return order;
+    }
+
+    @Test
+    public void shortOrders_areRefusedWithoutTakingAnything() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.SAUSAGE, 5);
+        inventory.setStock(Topping.HAM, 1);
+        Order order = new Order();
+        order.addPizza(new ChicagoPizza().createMeatzza(Size.SMALL));
+        order.addPizza(new NYPizza().createMeatzza(Size.LARGE));
+
+        assertFalse(inventory.reserve(order));
+        assertEquals(5, inventory.getStock(Topping.SAUSAGE));
+        assertEquals(1, inventory.getStock(Topping.HAM));
+        assertEquals(-1, inventory.getStock(Topping.BEEF));
+
+        inventory.restock(Topping.HAM, 1);
+        assertTrue(inventory.reserve(order));
+        assertEquals(3, inventory.getStock(Topping.SAUSAGE));
+        assertEquals(0, inventory.getStock(Topping.HAM));
+        inventory.release(order);
+        assertEquals(5, inventory.getStock(Topping.SAUSAGE));
+        assertEquals(2, inventory.getStock(Topping.HAM));
+    }
+
+    @Test
+    public void placingAndCanceling_reserveAndReleaseStock() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.BEEF, 1);
+        Order.setToppingInventory(inventory);
+        try {
+            Order first = meatzzaOrder();
+            Order second = meatzzaOrder();
+            assertTrue(first.placeOrder());
+            assertFalse(second.placeOrder());
+            assertFalse(second.isPlaced());
+            assertEquals(0, inventory.getStock(Topping.BEEF));
+
+            assertTrue(first.cancelOrder());
+            assertEquals(1, inventory.getStock(Topping.BEEF));
+            assertTrue(second.placeOrder());
+            assertTrue(second.cancelOrder());
+        } finally {
+            Order.setToppingInventory(null);
+        }
+    }
+
+    @Test
+    public void release_returnsThePortionsReservedOnce() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.BEEF, 3);
+        Order order = meatzzaOrder();
+        assertTrue(inventory.reserve(order));
+        assertEquals(2, inventory.getStock(Topping.BEEF));
+
+        // Changing the order after the reservation does not change what is put back
+        order.addPizza(new NYPizza().createMeatzza(Size.LARGE), 2);
+        inventory.release(order);
+        assertEquals(3, inventory.getStock(Topping.BEEF));
+        inventory.release(order);
+        assertEquals(3, inventory.getStock(Topping.BEEF));
+    }
+
+    @Test
+    public void refusedOrders_goBackToTheCart() throws Exception {
+        OrderManager manager = OrderManager.getInstance();
+        String session = "short-of-beef";
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.BEEF, 0);
+        Order.setToppingInventory(inventory);
+        try {
+            manager.addPizza(session, new ChicagoPizza().createMeatzza(Size.SMALL));
+            Order refused = manager.placeOrder(session);
+            assertFalse(refused.isPlaced());
+            assertEquals(refused.getOrderNumber(), manager.getCurrentOrderNumber(session));
+            assertEquals(1, manager.getTotalPizzasInOrder(session));
+
+            CountDownLatch done = new CountDownLatch(1);
+            Order submitted = manager.placeOrderAsync(session, Runnable::run, (order, placed) -> {
+                assertFalse(placed);
+                done.countDown();
+            });
+            // Pizzas added while the order is being refused join it in the cart
+            manager.addPizza(session, new NYPizza().createDeluxe(Size.LARGE));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertSame(refused, submitted);
+            assertEquals(refused.getOrderNumber(), manager.getCurrentOrderNumber(session));
+            assertEquals(2, manager.getTotalPizzasInOrder(session));
+
+            inventory.restock(Topping.BEEF, 1);
+            Order placed = manager.placeOrder(session);
+            assertTrue(placed.isPlaced());
+            assertEquals(2, placed.getPizzaCount());
+            assertEquals(0, manager.getTotalPizzasInOrder(session));
+            assertTrue(placed.cancelOrder());
+        } finally {
+            Order.setToppingInventory(manager.getInventory());
+            manager.closeSession(session);
+        }
+    }
+
+    @Test
+    public void lowStockListeners_areToldOncePerCrossing() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.PEPPERONI, 4);
+        inventory.setLowStockThreshold(Topping.PEPPERONI, 2);
+        List<Integer> warnings = new ArrayList<>();
+        inventory.addLowStockListener((topping, remaining) -> {
+            assertEquals(Topping.PEPPERONI, topping);
+            warnings.add(remaining);
+        });
+
+        assertTrue(inventory.reserve(meatzzaOrder()));
+        assertTrue(warnings.isEmpty());
+        assertTrue(inventory.reserve(meatzzaOrder()));
+        assertTrue(inventory.reserve(meatzzaOrder()));
+        assertEquals(1, warnings.size());
+        assertEquals(2, (int) warnings.get(0));
+    }
+
+    @Test
+    public void failingLowStockListeners_doNotStopPlacement() {
+        ToppingInventory inventory = new ToppingInventory();
+        inventory.setStock(Topping.PEPPERONI, 1);
+        inventory.setLowStockThreshold(Topping.PEPPERONI, 0);
+        inventory.addLowStockListener((topping, remaining) -> {
+            throw new IllegalStateException("warning failed");
+        });
+        Order.setToppingInventory(inventory);
+        try {
+            Order order = meatzzaOrder();
+            assertTrue(order.placeOrder());
+            assertTrue(order.isPlaced());
+            assertSame(order, Order.findOrder(order.getOrderNumber()));
+            assertEquals(0, inventory.getStock(Topping.PEPPERONI));
+        } finally {
+            Order.setToppingInventory(null);
+        }
+    }
+
+    @Test
+    public void concurrentReservations_neverOversell() throws Exception {
+        ToppingInventory inventory = new ToppingInventory();
+        int stock = 10_000;
+        inventory.setStock(Topping.SAUSAGE, stock);
+        inventory.setStock(Topping.HAM, stock);
+        int threads = 16;
+        int attemptsPerThread = 2_000;
+        Order order = meatzzaOrder();
+        AtomicInteger reserved = new AtomicInteger();
+        TestThreads.runConcurrently(threads, thread -> {
+            for (int i = 0; i < attemptsPerThread; i++) {
+                if (inventory.reserve(order)) {
+                    reserved.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(stock, reserved.get());
+        assertEquals(0, inventory.getStock(Topping.SAUSAGE));
+        assertEquals(0, inventory.getStock(Topping.HAM));
+    }
+}
@@ -0,0 +1,34 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            // The pizza domain model has no Android dependencies, so it is compiled
+            // straight from the app sources onto a plain JVM classpath.
+            setSrcDirs(listOf("../app/src/main/java"))
+            exclude(
+                "**/*Activity.java",
+                "**/ToppingsAdapter.java",
+                "**/ToppingItem.java",
+                "**/ToppingCatalog.java",
+                "**/ImageLoader.java",
+                "**/OrderHistoryAdapter.java"
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,56 @@
+package com.example.rupizzeriaapp;
+
+/**
+ * Builds the pizzas and orders shared by the benchmarks.
+ */
+final class BenchmarkData {
+    private static final String[] KINDS = {"Build Your Own", "BBQ Chicken", "Deluxe", "Meatzza"};
+    private static final PizzaFactory[] FACTORIES = {new ChicagoPizza(), new NYPizza()};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a pizza of the given kind using the given factory.
+     *
+     * @param factory the factory for the pizza style
+     * @param kind    the pizza kind as shown in the pizza type spinner
+     * @return the new pizza, without a size
+     */
+    static Pizza createPizza(PizzaFactory factory, String kind) {
+        switch (kind) {
+            case "Deluxe":
+                return factory.createDeluxe();
+            case "Meatzza":
+                return factory.createMeatzza();
+            case "BBQ Chicken":
+                return factory.createBBQChicken();
+            default:
+                return factory.createBuildYourOwn();
+        }
+    }
+
+    /**
+     * Creates an order holding a deterministic mix of pizzas.
+     * Every kind, style and size appears, and Build Your Own pizzas carry 0 to 6 toppings.
+     *
+     * @param pizzaCount the number of pizzas in the order
+     * @return the filled, unplaced order
+     */
+    static Order createOrder(int pizzaCount) {
+        Order order = new Order();
+        Size[] sizes = Size.values();
+        Topping[] toppings = Topping.values();
+        for (int i = 0; i < pizzaCount; i++) {
+            Pizza pizza = createPizza(FACTORIES[i % FACTORIES.length], KINDS[i % KINDS.length]);
+            pizza.setSize(sizes[i % sizes.length]);
+            if (pizza instanceof BuildYourOwn) {
+                for (int t = 0; t < i % 7; t++) {
+                    pizza.addTopping(toppings[t]);
+                }
+            }
+            order.addPizza(pizza);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks taking a 1,000-pizza catering order: one pizza at a time through the factories,
+ * against one batch of specs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CateringOrderBenchmark {
+    private static final int TOPPINGS = Topping.PEPPERONI.mask() | Topping.MUSHROOM.mask() | Topping.OLIVES.mask();
+
+    private long[] specs;
+
+    /**
+     * Builds a catering order of 1,000 pizzas over eight configurations.
+     */
+    @Setup
+    public void setUp() {
+        specs = new long[] {
+                PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.CHICAGO, Size.LARGE, 200),
+                PizzaSpec.of(PizzaKind.MEATZZA, PizzaStyle.CHICAGO, Size.LARGE, 150),
+                PizzaSpec.of(PizzaKind.BBQ_CHICKEN, PizzaStyle.NEW_YORK, Size.MEDIUM, 100),
+                PizzaSpec.of(PizzaKind.DELUXE, PizzaStyle.NEW_YORK, Size.SMALL, 50),
+                PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, Size.LARGE, 0, 200),
+                PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.NEW_YORK, Size.LARGE, TOPPINGS, 150),
+                PizzaSpec.of(PizzaKind.BUILD_YOUR_OWN, PizzaStyle.CHICAGO, Size.MEDIUM, Topping.HAM.mask(), 100),
+                PizzaSpec.of(PizzaKind.MEATZZA, PizzaStyle.NEW_YORK, Size.SMALL, 50)
+        };
+    }
+
+    /**
+     * Adds every pizza on its own, building the Build Your Own pizzas topping by topping.
+     */
+    @Benchmark
+    public long onePizzaAtATime() {
+        Order order = new Order();
+        for (long spec : specs) {
+            for (int i = PizzaSpec.quantity(spec); i > 0; i--) {
+                PizzaFactory factory = PizzaSpec.style(spec).getFactory();
+                Size size = PizzaSpec.size(spec);
+                switch (PizzaSpec.kind(spec)) {
+                    case DELUXE:
+                        order.addPizza(factory.createDeluxe(size));
+                        break;
+                    case MEATZZA:
+                        order.addPizza(factory.createMeatzza(size));
+                        break;
+                    case BBQ_CHICKEN:
+                        order.addPizza(factory.createBBQChicken(size));
+                        break;
+                    default:
+                        Pizza pizza = factory.createBuildYourOwn();
+                        pizza.setSize(size);
+                        for (Topping topping : Topping.fromMask(PizzaSpec.toppingMask(spec))) {
+                            pizza.addTopping(topping);
+                        }
+                        order.addPizza(pizza);
+                }
+            }
+        }
+        return order.getSubtotalCents();
+    }
+
+    @Benchmark
+    public long batch() {
+        Order order = new Order();
+        order.addBatch(specs);
+        return order.getSubtotalCents();
+    }
+}
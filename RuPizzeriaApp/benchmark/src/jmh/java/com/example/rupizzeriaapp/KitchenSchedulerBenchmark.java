@@ -0,0 +1,78 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks the kitchen scheduler through a simulated rush: a minute's worth of orders
+ * scheduled to completion on one thread, and order intake racing dispatch on many threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KitchenSchedulerBenchmark {
+    private static final int RUSH_ORDERS = 1000;
+    private static final long MINUTE = 60_000L;
+
+    @Param({"4", "16"})
+    public int ovens;
+
+    private Order[] orders;
+    private KitchenScheduler shared;
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Builds orders of one to three pizzas in a deterministic mix of crusts.
+     */
+    @Setup
+    public void setUp() {
+        orders = new Order[RUSH_ORDERS];
+        for (int i = 0; i < RUSH_ORDERS; i++) {
+            orders[i] = BenchmarkData.createOrder(1 + i % 3);
+        }
+        shared = new KitchenScheduler(ovens, KitchenScheduler.DEFAULT_PROMISE_MILLIS);
+    }
+
+    /**
+     * Feeds a thousand orders arriving over one minute into a fresh kitchen and runs the ovens
+     * until every ticket has been started. Reported per order, about two tickets each.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RUSH_ORDERS)
+    public long rush() {
+        KitchenScheduler kitchen = new KitchenScheduler(ovens, KitchenScheduler.DEFAULT_PROMISE_MILLIS);
+        for (int i = 0; i < orders.length; i++) {
+            kitchen.submit(orders[i], i * MINUTE / orders.length);
+        }
+        long finishedAt = 0;
+        for (long now = kitchen.nextDispatchAt(); now >= 0; now = kitchen.nextDispatchAt()) {
+            for (KitchenScheduler.Ticket ticket : kitchen.dispatch(now)) {
+                finishedAt = Math.max(finishedAt, ticket.getFinishAt());
+            }
+        }
+        return finishedAt;
+    }
+
+    /**
+     * Sixteen threads each submit an order and dispatch against a shared simulated clock
+     * that advances ten minutes per order, so the ovens keep up with intake.
+     */
+    @Benchmark
+    @Threads(16)
+    public int concurrentIntake() {
+        long now = clock.addAndGet(10 * MINUTE);
+        shared.submit(orders[(int) (now / (10 * MINUTE) % orders.length)], now);
+        return shared.dispatch(now).size();
+    }
+}
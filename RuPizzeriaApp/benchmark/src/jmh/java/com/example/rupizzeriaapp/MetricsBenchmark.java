@@ -0,0 +1,51 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of instrumentation on the cheapest probed call, {@link Order#getTotalCents()},
+ * with recording on and off, and recording from many threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = BenchmarkData.createOrder(3);
+        Metrics.setEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Metrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public long orderTotal() {
+        return order.getTotalCents();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long orderTotalContended() {
+        return order.getTotalCents();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks scans over a month of archived orders: 500 orders a day for 30 days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderArchiveBenchmark {
+    private static final int DAYS = 30;
+    private static final int ORDERS_PER_DAY = 500;
+    private static final long DAY = 24 * 60 * 60_000L;
+
+    private File file;
+    private OrderArchive archive;
+
+    /**
+     * Archives a month of orders of one to three pizzas, spread evenly over each day.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Order> orders = new ArrayList<>(DAYS * ORDERS_PER_DAY);
+        for (int i = 0; i < DAYS * ORDERS_PER_DAY; i++) {
+            Order template = BenchmarkData.createOrder(1 + i % 3);
+            Order order = new Order(i + 1, i * (DAY / ORDERS_PER_DAY));
+            for (int line = 0; line < template.getLineCount(); line++) {
+                order.addPizza(template.getLinePizza(line), template.getLineQuantity(line));
+            }
+            orders.add(order);
+        }
+        file = File.createTempFile("orders", ".archive");
+        OrderArchive.write(file, orders);
+        archive = OrderArchive.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Revenue for the whole month.
+     */
+    @Benchmark
+    public long monthRevenue() {
+        return archive.getRevenueCents(0, DAYS * DAY);
+    }
+
+    /**
+     * Topping usage for the whole month.
+     */
+    @Benchmark
+    public long[] monthToppings() {
+        return archive.countToppings(0, DAYS * DAY);
+    }
+
+    /**
+     * Large Meatzzas sold in one week.
+     */
+    @Benchmark
+    public long weekOfMeatzzas() {
+        return archive.countPizzas(PizzaKind.MEATZZA, Size.LARGE, 7 * DAY, 14 * DAY);
+    }
+}
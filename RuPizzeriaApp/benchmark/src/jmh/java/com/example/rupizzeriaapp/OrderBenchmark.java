@@ -0,0 +1,64 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the totals and receipt rendering of an order as it grows
+ * from a single pizza to a busy store's worth of pizzas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderBenchmark {
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int pizzaCount;
+
+    private Order order;
+    private final StringBuilder receipt = new StringBuilder();
+
+    /**
+     * Fills the order with a deterministic mix of pizza kinds, styles and sizes.
+     */
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.createOrder(pizzaCount);
+    }
+
+    @Benchmark
+    public long subtotal() {
+        return order.getSubtotalCents();
+    }
+
+    @Benchmark
+    public long tax() {
+        return order.getTaxCents();
+    }
+
+    @Benchmark
+    public long total() {
+        return order.getTotalCents();
+    }
+
+    @Benchmark
+    public String render() {
+        return order.toString();
+    }
+
+    /**
+     * Renders into a reused builder, as the receipt printer does.
+     */
+    @Benchmark
+    public int renderInto() {
+        receipt.setLength(0);
+        return ReceiptRenderer.appendOrder(receipt, order).length();
+    }
+}
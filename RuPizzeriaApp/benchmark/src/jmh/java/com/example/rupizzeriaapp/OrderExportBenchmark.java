@@ -0,0 +1,54 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks exporting a busy day's order book: 10,000 orders of one to three pizzas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderExportBenchmark {
+    private static final int ORDERS = 10_000;
+
+    private List<Order> orders;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(BenchmarkData.createOrder(1 + i % 3));
+        }
+        file = File.createTempFile("orders", ".export");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int exportBinary() throws IOException {
+        return OrderExport.exportBinary(file, orders);
+    }
+
+    @Benchmark
+    public int exportCsv() throws IOException {
+        return OrderExport.exportCsv(file, orders);
+    }
+}
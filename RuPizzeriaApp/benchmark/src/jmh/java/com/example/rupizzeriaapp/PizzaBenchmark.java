@@ -0,0 +1,60 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pricing and string rendering of a single pizza of each kind.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PizzaBenchmark {
+    @Param({"Deluxe", "Meatzza", "BBQ Chicken", "Build Your Own"})
+    public String kind;
+
+    private Pizza pizza;
+    private final StringBuilder receipt = new StringBuilder();
+
+    /**
+     * Builds a large Chicago-style pizza of the requested kind.
+     * Build Your Own pizzas get the maximum of 7 toppings so the topping loop is exercised.
+     */
+    @Setup
+    public void setUp() {
+        pizza = BenchmarkData.createPizza(new ChicagoPizza(), kind);
+        pizza.setSize(Size.LARGE);
+        if (kind.equals("Build Your Own")) {
+            for (Topping topping : Topping.values()) {
+                pizza.addTopping(topping);
+            }
+        }
+    }
+
+    @Benchmark
+    public long price() {
+        return pizza.priceCents();
+    }
+
+    @Benchmark
+    public String render() {
+        return pizza.toString();
+    }
+
+    /**
+     * Renders into a reused builder, as the receipt printer does.
+     */
+    @Benchmark
+    public int renderInto() {
+        receipt.setLength(0);
+        return ReceiptRenderer.appendPizza(receipt, pizza).length();
+    }
+}
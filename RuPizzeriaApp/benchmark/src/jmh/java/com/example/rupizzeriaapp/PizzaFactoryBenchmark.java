@@ -0,0 +1,65 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link ChicagoPizza} and {@link NYPizza} factory methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PizzaFactoryBenchmark {
+    @Param({"Chicago", "New York"})
+    public String style;
+
+    private PizzaFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = style.equals("Chicago") ? new ChicagoPizza() : new NYPizza();
+    }
+
+    @Benchmark
+    public Pizza createDeluxe() {
+        return factory.createDeluxe();
+    }
+
+    @Benchmark
+    public Pizza createMeatzza() {
+        return factory.createMeatzza();
+    }
+
+    @Benchmark
+    public Pizza createBBQChicken() {
+        return factory.createBBQChicken();
+    }
+
+    @Benchmark
+    public Pizza createSharedDeluxe() {
+        return factory.createDeluxe(Size.LARGE);
+    }
+
+    @Benchmark
+    public Pizza createSharedMeatzza() {
+        return factory.createMeatzza(Size.LARGE);
+    }
+
+    @Benchmark
+    public Pizza createSharedBBQChicken() {
+        return factory.createBBQChicken(Size.LARGE);
+    }
+
+    @Benchmark
+    public Pizza createBuildYourOwn() {
+        return factory.createBuildYourOwn();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the sales analytics: orders recorded from many threads at once, and the queries
+ * a dashboard polls, which must not depend on how many orders have been recorded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SalesAnalyticsBenchmark {
+    private static final int ORDERS = 1000;
+
+    private Order[] orders;
+    private SalesAnalytics analytics;
+
+    /**
+     * Records a day's worth of orders before measuring.
+     */
+    @Setup
+    public void setUp() {
+        orders = new Order[ORDERS];
+        analytics = new SalesAnalytics();
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = BenchmarkData.createOrder(1 + i % 3);
+            analytics.onOrderPlaced(orders[i]);
+        }
+    }
+
+    /**
+     * Sixteen threads record placed orders into the same figures.
+     */
+    @Benchmark
+    @Threads(16)
+    public void recordPlaced() {
+        analytics.onOrderPlaced(orders[(int) (Thread.currentThread().getId() % ORDERS)]);
+    }
+
+    /**
+     * One dashboard refresh: totals, an hourly figure and the revenue by crust.
+     */
+    @Benchmark
+    public long dashboard() {
+        long sum = analytics.getRevenueCents() + analytics.getOrderCount()
+                + analytics.getHourlyPizzaCount(PizzaKind.MEATZZA, Size.LARGE, 0);
+        for (Crust crust : Crust.values()) {
+            sum += analytics.getRevenueCents(crust);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rupizzeriaapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks topping reservations under contention: many threads reserving and releasing
+ * against the same stock, with every order sharing the same toppings or spread across them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ToppingInventoryBenchmark {
+    private static final int ORDERS = 64;
+
+    private ToppingInventory inventory;
+    private Order meatzza;
+    private Order[] mixed;
+
+    /**
+     * Stocks every topping well beyond what the benchmark holds at once.
+     */
+    @Setup
+    public void setUp() {
+        inventory = new ToppingInventory();
+        for (Topping topping : Topping.values()) {
+            inventory.setStock(topping, 1_000_000);
+        }
+        meatzza = new Order();
+        meatzza.addPizza(new ChicagoPizza().createMeatzza(Size.LARGE));
+        mixed = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            mixed[i] = BenchmarkData.createOrder(1 + i % 3);
+        }
+    }
+
+    /**
+     * Sixteen threads reserve and release the same order, all hitting the same four counters.
+     */
+    @Benchmark
+    @Threads(16)
+    public boolean sameToppings() {
+        boolean reserved = inventory.reserve(meatzza);
+        inventory.release(meatzza);
+        return reserved;
+    }
+
+    /**
+     * Thirty-two threads reserve and release a mix of orders across every topping.
+     */
+    @Benchmark
+    @Threads(32)
+    public boolean mixedToppings() {
+        Order order = mixed[(int) (Thread.currentThread().getId() % ORDERS)];
+        boolean reserved = inventory.reserve(order);
+        inventory.release(order);
+        return reserved;
+    }
+}
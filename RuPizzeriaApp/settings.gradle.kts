@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "RuPizzeriaApp-Shreyas and Sahil"
 include(":app")
+include(":benchmark")
  
\ No newline at end of file